@@ -0,0 +1,284 @@
+package xyz.femdev.femutils.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@code GeneratedCodec} for every config record annotated with {@code @Header}
+ * or with {@code @Comment} on one of its components, and for the records those reference that
+ * are compiled in the same round.
+ * <p>
+ * The generated class lives next to the record and is named after it, see
+ * {@code GeneratedCodec.SUFFIX}. It converts between the record and its map tree with plain
+ * constructor and accessor calls, and carries the header and comment lines as constants.
+ * </p>
+ */
+@SupportedAnnotationTypes({ConfigCodecProcessor.HEADER, ConfigCodecProcessor.COMMENT})
+public final class ConfigCodecProcessor extends AbstractProcessor {
+
+    static final String CONFIG_PACKAGE = "xyz.femdev.femutils.java.config";
+    static final String HEADER = CONFIG_PACKAGE + ".Header";
+    static final String COMMENT = CONFIG_PACKAGE + ".Comment";
+    private static final String SUFFIX = "_Codec";
+
+    private final Set<String> generated = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        Set<TypeElement> records = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element e : round.getElementsAnnotatedWith(annotation)) {
+                Element type = e.getKind() == ElementKind.RECORD ? e : e.getEnclosingElement();
+                if (type != null && type.getKind() == ElementKind.RECORD) records.add((TypeElement) type);
+            }
+        }
+        List<TypeElement> queue = new ArrayList<>(records);
+        for (int i = 0; i < queue.size(); i++) {
+            for (RecordComponentElement c : queue.get(i).getRecordComponents()) {
+                collectRecords(c.asType(), round.getRootElements(), records, queue);
+            }
+        }
+        for (TypeElement record : records) {
+            if (!generated.add(record.getQualifiedName().toString())) continue;
+            if (!isAccessible(record)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "No config codec generated for private or generic record", record);
+                continue;
+            }
+            try {
+                write(record);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Failed to write config codec: " + e.getMessage(), record);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds records referenced by a component type, including type arguments and array components,
+     * if they are part of this compilation.
+     */
+    private void collectRecords(TypeMirror type, Set<? extends Element> roots,
+                                Set<TypeElement> records, List<TypeElement> queue) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            collectRecords(((ArrayType) type).getComponentType(), roots, records, queue);
+        } else if (type.getKind() == TypeKind.WILDCARD) {
+            TypeMirror bound = ((WildcardType) type).getExtendsBound();
+            if (bound != null) collectRecords(bound, roots, records, queue);
+        } else if (type.getKind() == TypeKind.DECLARED) {
+            DeclaredType declared = (DeclaredType) type;
+            for (TypeMirror arg : declared.getTypeArguments()) collectRecords(arg, roots, records, queue);
+            TypeElement element = (TypeElement) declared.asElement();
+            if (element.getKind() != ElementKind.RECORD) return;
+            Element outer = element;
+            while (outer.getEnclosingElement() instanceof TypeElement t) outer = t;
+            if (roots.contains(outer) && records.add(element)) queue.add(element);
+        }
+    }
+
+    private boolean isAccessible(TypeElement record) {
+        if (!record.getTypeParameters().isEmpty()) return false;
+        for (Element e = record; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) return false;
+        }
+        return true;
+    }
+
+    private void write(TypeElement record) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(record);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String recordName = record.getQualifiedName().toString();
+        String nestedName = packageName.isEmpty() ? recordName : recordName.substring(packageName.length() + 1);
+        String codecName = nestedName.replace('.', '_') + SUFFIX;
+
+        List<? extends RecordComponentElement> components = record.getRecordComponents();
+        List<String> typeConstants = new ArrayList<>();
+        StringBuilder src = new StringBuilder();
+
+        if (!packageName.isEmpty()) src.append("package ").append(packageName).append(";\n\n");
+        src.append("import ").append(CONFIG_PACKAGE).append(".GeneratedCodec;\n");
+        src.append("import ").append(CONFIG_PACKAGE).append(".ReflectMapper;\n\n");
+        src.append("import java.util.LinkedHashMap;\n");
+        src.append("import java.util.List;\n");
+        src.append("import java.util.Map;\n\n");
+        src.append("/**\n * Generated config codec for {@link ").append(recordName).append("}.\n */\n");
+        src.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        src.append("public final class ").append(codecName)
+                .append(" implements GeneratedCodec<").append(recordName).append("> {\n\n");
+
+        // header and component metadata
+        String[] header = lines(record, HEADER);
+        src.append("    private static final String[] HEADER = ").append(stringArray(header)).append(";\n");
+        src.append("    private static final List<Property> PROPERTIES = List.of(");
+        for (int i = 0; i < components.size(); i++) {
+            RecordComponentElement c = components.get(i);
+            src.append(i == 0 ? "\n" : ",\n");
+            src.append("            new Property(").append(literal(c.getSimpleName().toString())).append(", ")
+                    .append(erasure(c.asType())).append(".class, ")
+                    .append(stringArray(lines(c, COMMENT))).append(")");
+        }
+        src.append(");\n");
+
+        // decode expressions, collecting Type constants for generic components
+        List<String> decodes = new ArrayList<>();
+        for (RecordComponentElement c : components) {
+            TypeMirror type = c.asType();
+            String raw = "map.get(" + literal(c.getSimpleName().toString()) + ")";
+            if (type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty()) {
+                String constant = "TYPE_" + typeConstants.size();
+                typeConstants.add("    private static final java.lang.reflect.Type " + constant + " = " + typeExpr(type) + ";\n");
+                decodes.add("(" + type + ") ctx.toObject(" + raw + ", " + constant + ")");
+            } else {
+                decodes.add("ctx.toObject(" + raw + ", " + erasure(type) + ".class)");
+            }
+        }
+        for (String constant : typeConstants) src.append(constant);
+        src.append("\n");
+
+        src.append("    @Override\n    public Class<").append(recordName).append("> type() {\n")
+                .append("        return ").append(recordName).append(".class;\n    }\n\n");
+        src.append("    @Override\n    public String[] header() {\n        return HEADER;\n    }\n\n");
+        src.append("    @Override\n    public List<Property> properties() {\n        return PROPERTIES;\n    }\n\n");
+
+        src.append("    @Override\n    public Object get(").append(recordName).append(" value, int index) {\n")
+                .append("        return switch (index) {\n");
+        for (int i = 0; i < components.size(); i++) {
+            src.append("            case ").append(i).append(" -> value.")
+                    .append(components.get(i).getAccessor().getSimpleName()).append("();\n");
+        }
+        src.append("            default -> throw new IndexOutOfBoundsException(index);\n        };\n    }\n\n");
+
+        src.append("    @Override\n    @SuppressWarnings(\"unchecked\")\n    public ").append(recordName)
+                .append(" deserialize(Object raw, ReflectMapper ctx, Class<").append(recordName).append("> type) {\n")
+                .append("        if (!(raw instanceof Map<?, ?> map))\n")
+                .append("            throw new IllegalArgumentException(\"Expected map for ").append(recordName).append("\");\n")
+                .append("        return new ").append(recordName).append("(");
+        for (int i = 0; i < decodes.size(); i++) {
+            src.append(i == 0 ? "\n" : ",\n").append("                ").append(decodes.get(i));
+        }
+        src.append(");\n    }\n\n");
+
+        src.append("    @Override\n    public Object serialize(").append(recordName).append(" value, ReflectMapper ctx) {\n")
+                .append("        Map<String, Object> out = new LinkedHashMap<>(")
+                .append(Math.max(16, components.size() * 4 / 3 + 1)).append(");\n");
+        for (RecordComponentElement c : components) {
+            src.append("        out.put(").append(literal(c.getSimpleName().toString())).append(", ctx.toTree(value.")
+                    .append(c.getAccessor().getSimpleName()).append("()));\n");
+        }
+        src.append("        return out;\n    }\n}\n");
+
+        String qualified = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualified, record);
+        try (Writer w = file.openWriter()) {
+            w.write(src.toString());
+        }
+    }
+
+    /**
+     * Renders a {@code java.lang.reflect.Type} expression for the given type.
+     */
+    private String typeExpr(TypeMirror type) {
+        return switch (type.getKind()) {
+            case DECLARED -> {
+                List<? extends TypeMirror> args = ((DeclaredType) type).getTypeArguments();
+                if (args.isEmpty()) yield erasure(type) + ".class";
+                StringBuilder sb = new StringBuilder(CONFIG_PACKAGE).append(".Types.parameterized(")
+                        .append(erasure(type)).append(".class");
+                for (TypeMirror arg : args) sb.append(", ").append(typeExpr(arg));
+                yield sb.append(")").toString();
+            }
+            case WILDCARD -> {
+                TypeMirror bound = ((WildcardType) type).getExtendsBound();
+                yield bound != null ? typeExpr(bound) : "Object.class";
+            }
+            case ARRAY, BOOLEAN, BYTE, SHORT, INT, LONG, CHAR, FLOAT, DOUBLE -> erasure(type) + ".class";
+            default -> "Object.class";
+        };
+    }
+
+    private String erasure(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) return erasure(((ArrayType) type).getComponentType()) + "[]";
+        if (type.getKind().isPrimitive()) return type.toString();
+        if (type.getKind() != TypeKind.DECLARED) return "Object";
+        return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * @return the {@code String[]} value of the given annotation on the element, or {@code null}
+     */
+    private static String[] lines(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!type.getQualifiedName().contentEquals(annotation)) continue;
+            for (var e : mirror.getElementValues().entrySet()) {
+                if (!e.getKey().getSimpleName().contentEquals("value")) continue;
+                Object value = e.getValue().getValue();
+                if (value instanceof List<?> list) {
+                    String[] out = new String[list.size()];
+                    for (int i = 0; i < out.length; i++) out[i] = (String) ((AnnotationValue) list.get(i)).getValue();
+                    return out;
+                }
+                return new String[]{(String) value};
+            }
+        }
+        return null;
+    }
+
+    private static String stringArray(String[] values) {
+        if (values == null) return "null";
+        StringBuilder sb = new StringBuilder("new String[]{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(literal(values[i]));
+        }
+        return sb.append("}").toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -8,6 +8,7 @@ dependencies {
     implementation(project(":java"))
     implementation(project(":paper"))
     implementation(project(":compatibility-layer:core"))
+    annotationProcessor(project(":config-processor"))
 }
 
 tasks {
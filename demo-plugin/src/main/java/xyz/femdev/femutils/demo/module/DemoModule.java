@@ -10,6 +10,7 @@ import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import xyz.femdev.femutils.demo.DemoConfig;
 import xyz.femdev.femutils.java.config.ConfigHandle;
+import xyz.femdev.femutils.java.config.DerivedValue;
 import xyz.femdev.femutils.java.module.Module;
 import xyz.femdev.femutils.java.module.ModuleContext;
 import xyz.femdev.femutils.java.profiler.*;
@@ -24,6 +25,7 @@ import xyz.femdev.femutils.paper.gui.*;
 import xyz.femdev.femutils.paper.gui.input.AnvilPrompt;
 import xyz.femdev.femutils.paper.item.ItemBuilder;
 import xyz.femdev.femutils.paper.profiler.PaperProfilerRenderer;
+import xyz.femdev.femutils.paper.registry.RegistryIndexes;
 import xyz.femdev.femutils.paper.tasks.TaskChain;
 import xyz.femdev.femutils.paper.tasks.Tasks;
 
@@ -31,9 +33,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
@@ -44,13 +49,19 @@ import java.util.stream.Stream;
 public class DemoModule implements Module {
 
     private final JavaPlugin plugin;
+    private PaperConfigs configs;
     private ConfigHandle<DemoConfig> configHandle;
+    private DerivedValue<Set<Material>> giveWhitelist;
+    private DerivedValue<List<String>> giveSuggestions;
+    private DerivedValue<String> pingSound;
     private FemCommandManager commands;
     private Events events;
     private Tasks tasks;
     private GuiManager guiManager;
     private final Map<UUID, EventSubscription<?>> quitSubs = new ConcurrentHashMap<>();
     private static final MiniMessage MM = MiniMessage.miniMessage();
+    private static final ProfilerKey TICK_ROOT = ProfilerKey.of("tick-root");
+    private static final ProfilerKey TICK_CHILD = ProfilerKey.of("tick-child");
 
     public DemoModule(JavaPlugin plugin) {
         this.plugin = Objects.requireNonNull(plugin, "plugin");
@@ -58,12 +69,20 @@ public class DemoModule implements Module {
 
     @Override
     public void init(ModuleContext ctx) {
-        PaperConfigs cfgs = new PaperConfigs(plugin);
+        configs = new PaperConfigs(plugin);
         try {
-            configHandle = cfgs.create("config.yml", DemoConfig.class, DemoConfig::defaults);
+            configHandle = configs.create("config.yml", DemoConfig.class, DemoConfig::defaults);
+            configs.watch(configHandle);
         } catch (IOException e) {
             throw new RuntimeException("Failed to load demo config", e);
         }
+        giveWhitelist = configHandle.derive(c -> c.giveWhitelist().isEmpty()
+                ? EnumSet.noneOf(Material.class)
+                : EnumSet.copyOf(c.giveWhitelist()));
+        giveSuggestions = configHandle.derive(c -> c.giveWhitelist().stream()
+                .map(mat -> mat.getKey().asString())
+                .toList());
+        pingSound = configHandle.derive(c -> c.pingSound() != null ? c.pingSound().asString() : null);
 
         commands = new FemCommandManager(plugin);
         events = new Events(plugin);
@@ -85,6 +104,7 @@ public class DemoModule implements Module {
             sub.unsubscribe();
         }
         quitSubs.clear();
+        configs.close();
         plugin.getLogger().info("DemoModule stopped and cleaned up");
     }
 
@@ -111,9 +131,9 @@ public class DemoModule implements Module {
                 .exec(ctx -> {
                     Player p = ctx.player();
                     p.sendMessage(cfg().pingMessage());
-                    var key = cfg().pingSound();
+                    String key = pingSound.get();
                     if (key != null) {
-                        p.playSound(p.getLocation(), key.asString(), SoundCategory.MASTER, 1f, 1f);
+                        p.playSound(p.getLocation(), key, SoundCategory.MASTER, 1f, 1f);
                     }
                 })
                 .build();
@@ -136,20 +156,19 @@ public class DemoModule implements Module {
                 .arg(Argument.of("material", BuiltinParsers.STRING).build())
                 .exec(ctx -> {
                     String matStr = ctx.get("material");
-                    Material m = Material.matchMaterial(matStr);
+                    Material m = RegistryIndexes.materials().get(matStr);
                     if (m == null) {
                         ctx.msg(MM.deserialize("<red>Unknown material: " + matStr));
                         return;
                     }
-                    if (!cfg().giveWhitelist().contains(m)) {
+                    if (!giveWhitelist.get().contains(m)) {
                         ctx.msg(MM.deserialize("<red>Material not allowed."));
                         return;
                     }
                     ctx.player().getInventory().addItem(new org.bukkit.inventory.ItemStack(m));
                     ctx.msg(MM.deserialize("<green>Gave 1 " + m.getKey().asString()));
                 })
-                .suggest((c, token) -> cfg().giveWhitelist().stream()
-                        .map(mat -> mat.getKey().asString())
+                .suggest((c, token) -> giveSuggestions.get().stream()
                         .filter(s -> s.startsWith(token))
                         .toList())
                 .build();
@@ -429,9 +448,9 @@ public class DemoModule implements Module {
                     p.sendMessage(MM.deserialize("<gray>Starting Paper profiler demo...</gray>"));
 
                     Profiler.reset();
-                    try (var root = Profiler.start("tick-root")) {
+                    try (var root = Profiler.start(TICK_ROOT)) {
                         Thread.sleep(25);
-                        try (var child = Profiler.start("tick-child")) {
+                        try (var child = Profiler.start(TICK_CHILD)) {
                             Thread.sleep(15);
                         }
                     } catch (InterruptedException e) {
@@ -0,0 +1,120 @@
+package xyz.femdev.femutils.java.config;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link TypeSerializer} that memoizes another serializer's results for scalar raw values.
+ * <p>
+ * Meant for immutable values that are expensive to parse and repeat a lot, such as MiniMessage
+ * components in item lore. Raw strings, numbers and booleans are used as cache keys; maps, lists
+ * and {@code null} always go to the wrapped serializer. The wrapped serializer must return the
+ * same value for the same raw input regardless of the requested type.
+ * </p>
+ * <p>
+ * The cache is bounded by keeping two generations: lookups check the current one, then the
+ * previous one, promoting hits. Once the current generation is half of {@code maxSize} it
+ * replaces the previous one, so rarely used values fall out without any per-entry bookkeeping.
+ * Safe to share between threads and registries.
+ * </p>
+ *
+ * @param <T> the target type
+ */
+public final class CachingSerializer<T> implements TypeSerializer<T> {
+
+    private final TypeSerializer<T> delegate;
+    private final int generationSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Map<Object, T> current = new ConcurrentHashMap<>();
+    private volatile Map<Object, T> previous = Map.of();
+
+    private CachingSerializer(TypeSerializer<T> delegate, int maxSize) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        if (maxSize < 2) throw new IllegalArgumentException("maxSize must be at least 2");
+        this.generationSize = maxSize / 2;
+    }
+
+    /**
+     * Wraps a serializer with a cache of at most {@code maxSize} values.
+     *
+     * @param delegate serializer of an immutable type
+     * @param maxSize  maximum number of cached values
+     */
+    public static <T> CachingSerializer<T> of(TypeSerializer<T> delegate, int maxSize) {
+        return new CachingSerializer<>(delegate, maxSize);
+    }
+
+    @Override
+    public T deserialize(Object raw, ReflectMapper ctx, Class<T> type) {
+        if (!(raw instanceof String || raw instanceof Number || raw instanceof Boolean)) {
+            return delegate.deserialize(raw, ctx, type);
+        }
+        Map<Object, T> cur = current;
+        T value = cur.get(raw);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        value = previous.get(raw);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            value = delegate.deserialize(raw, ctx, type);
+            if (value == null) return null;
+        }
+        cur.put(raw, value);
+        if (cur.size() >= generationSize) rotate(cur);
+        return value;
+    }
+
+    @Override
+    public Object serialize(T value, ReflectMapper ctx) {
+        return delegate.serialize(value, ctx);
+    }
+
+    /**
+     * @return hit and miss counts since creation or the last {@link #clear()}
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), current.size() + previous.size());
+    }
+
+    /**
+     * Drops every cached value and resets the stats.
+     */
+    public synchronized void clear() {
+        current = new ConcurrentHashMap<>();
+        previous = Map.of();
+        hits.reset();
+        misses.reset();
+    }
+
+    private synchronized void rotate(Map<Object, T> full) {
+        // another thread may have rotated already
+        if (current != full) return;
+        previous = full;
+        current = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Cache statistics.
+     *
+     * @param hits   lookups answered from the cache
+     * @param misses lookups that ran the wrapped serializer
+     * @param size   number of cached values
+     */
+    public record Stats(long hits, long misses, int size) {
+
+        /**
+         * @return the fraction of lookups answered from the cache, or {@code 0} if there were none
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package xyz.femdev.femutils.java.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled accessor/constructor plan for a record or POJO.
+ * <p>
+ * A plan is built the first time a class is seen and cached per class, so converting an
+ * instance afterwards is a loop over pre-resolved {@link MethodHandle}s with no reflection lookups.
+ * </p>
+ */
+public final class ClassCodec {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<ClassCodec> CACHE = new ClassValue<>() {
+        @Override
+        protected ClassCodec computeValue(Class<?> type) {
+            return type.isRecord() ? compileRecord(type) : compilePojo(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final boolean record;
+    private final MethodHandle constructor;
+    private final List<Property> properties;
+    private final Map<String, Property> byName;
+
+    private ClassCodec(Class<?> type, boolean record, MethodHandle constructor, Property[] properties) {
+        this.type = type;
+        this.record = record;
+        this.constructor = constructor;
+        this.properties = List.of(properties);
+        this.byName = new HashMap<>(Math.max(16, properties.length * 2));
+        for (Property p : properties) byName.put(p.name(), p);
+    }
+
+    /**
+     * Returns the cached plan for the given class, compiling it on first use.
+     *
+     * @param type a record or POJO class
+     * @return the codec plan
+     */
+    public static ClassCodec of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * @return the class this plan was compiled for
+     */
+    public Class<?> type() {
+        return type;
+    }
+
+    /**
+     * @return {@code true} if the class is a record
+     */
+    public boolean isRecord() {
+        return record;
+    }
+
+    /**
+     * @return record components or non-static fields, in declaration order
+     */
+    public List<Property> properties() {
+        return properties;
+    }
+
+    /**
+     * @return the property with the given name, or {@code null} if there is none
+     */
+    public Property property(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Creates an instance.
+     * Records receive {@code args} in component order; POJOs use the no-arg constructor and ignore {@code args}.
+     *
+     * @param args constructor arguments for records
+     * @return the new instance
+     */
+    public Object newInstance(Object[] args) {
+        if (constructor == null) throw new RuntimeException("No no-arg constructor for " + type.getName());
+        try {
+            return record ? constructor.invokeExact(args) : constructor.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    private static ClassCodec compileRecord(Class<?> type) {
+        RecordComponent[] comps = type.getRecordComponents();
+        Property[] props = new Property[comps.length];
+        Class<?>[] ctorTypes = new Class<?>[comps.length];
+        try {
+            for (int i = 0; i < comps.length; i++) {
+                RecordComponent rc = comps[i];
+                var accessor = rc.getAccessor();
+                accessor.setAccessible(true);
+                MethodHandle getter = LOOKUP.unreflect(accessor)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                props[i] = new Property(i, rc.getName(), rc.getType(), rc.getGenericType(), rc, getter, null);
+                ctorTypes[i] = rc.getType();
+            }
+            Constructor<?> ctor = type.getDeclaredConstructor(ctorTypes);
+            ctor.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectConstructor(ctor)
+                    .asSpreader(Object[].class, comps.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new ClassCodec(type, true, handle, props);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Cannot compile record codec for " + type.getName(), e);
+        }
+    }
+
+    private static ClassCodec compilePojo(Class<?> type) {
+        Field[] fields = Arrays.stream(type.getDeclaredFields())
+                .filter(f -> !Modifier.isStatic(f.getModifiers()))
+                .toArray(Field[]::new);
+        Property[] props = new Property[fields.length];
+        try {
+            for (int i = 0; i < fields.length; i++) {
+                Field f = fields[i];
+                f.setAccessible(true);
+                MethodHandle getter = LOOKUP.unreflectGetter(f)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                MethodHandle setter = LOOKUP.unreflectSetter(f)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                props[i] = new Property(i, f.getName(), f.getType(), f.getGenericType(), f, getter, setter);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Cannot compile codec for " + type.getName(), e);
+        }
+
+        MethodHandle handle = null;
+        try {
+            Constructor<?> ctor = type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            handle = LOOKUP.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // reported on first instantiation, the plan is still usable for writing
+        }
+        return new ClassCodec(type, false, handle, props);
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException re) return re;
+        if (t instanceof Error err) throw err;
+        return new RuntimeException(t);
+    }
+
+    /**
+     * A single record component or field with pre-resolved accessors.
+     */
+    public static final class Property {
+        private final int index;
+        private final String name;
+        private final Class<?> type;
+        private final Type genericType;
+        private final String[] comment;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Property(int index, String name, Class<?> type, Type genericType,
+                         AnnotatedElement element, MethodHandle getter, MethodHandle setter) {
+            this.index = index;
+            this.name = name;
+            this.type = type;
+            this.genericType = genericType;
+            Comment c = element.getAnnotation(Comment.class);
+            this.comment = c != null ? c.value() : null;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        /**
+         * @return position in the record's canonical constructor, or in field order for POJOs
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * @return the component or field name
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return the erased type
+         */
+        public Class<?> type() {
+            return type;
+        }
+
+        /**
+         * @return the generic type, including type arguments
+         */
+        public Type genericType() {
+            return genericType;
+        }
+
+        /**
+         * @return the {@link Comment} lines, or {@code null} if not annotated
+         */
+        public String[] comment() {
+            return comment;
+        }
+
+        /**
+         * Reads this property from the given instance.
+         */
+        public Object get(Object instance) {
+            try {
+                return getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        /**
+         * Writes this property on the given POJO instance.
+         *
+         * @throws UnsupportedOperationException for record components
+         */
+        public void set(Object instance, Object value) {
+            if (setter == null) throw new UnsupportedOperationException("Record components are immutable: " + name);
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package xyz.femdev.femutils.java.config;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Structural difference between two decoded config values, as a set of dotted paths.
+ * <p>
+ * Records and maps are compared entry by entry; everything else (lists, arrays, scalars,
+ * serialized types) is compared by value and reported at its own path. The root object is
+ * also walked property by property when it is a POJO.
+ * </p>
+ */
+public final class ConfigDiff {
+
+    private static final ConfigDiff NONE = new ConfigDiff(Set.of());
+
+    private final Set<String> paths;
+
+    private ConfigDiff(Set<String> paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * Computes the changed paths between two values of the same config type.
+     */
+    public static ConfigDiff between(Object oldValue, Object newValue) {
+        if (oldValue == newValue) return NONE;
+        Set<String> paths = new LinkedHashSet<>();
+        if (oldValue != null && newValue != null && oldValue.getClass() == newValue.getClass()
+                && isPojo(oldValue.getClass())) {
+            diffProperties("", oldValue, newValue, paths);
+        } else {
+            diff("", oldValue, newValue, paths);
+        }
+        return paths.isEmpty() ? NONE : new ConfigDiff(Collections.unmodifiableSet(paths));
+    }
+
+    /**
+     * @return the most specific paths that changed; {@code ""} if the whole value was replaced
+     */
+    public Set<String> paths() {
+        return paths;
+    }
+
+    /**
+     * @return {@code true} if nothing changed
+     */
+    public boolean isEmpty() {
+        return paths.isEmpty();
+    }
+
+    /**
+     * Checks whether the value at a path may have changed: the path itself, anything below it,
+     * or a parent that was replaced as a whole.
+     *
+     * @param path dotted path, or {@code ""} for any change
+     */
+    public boolean changed(String path) {
+        if (paths.isEmpty()) return false;
+        if (path.isEmpty()) return true;
+        for (String p : paths) {
+            if (p.equals(path) || p.isEmpty()) return true;
+            if (p.length() > path.length() ? isChild(p, path) : isChild(path, p)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigDiff" + paths;
+    }
+
+    private static boolean isPojo(Class<?> type) {
+        // JDK and other module classes cannot be opened for property access
+        return !type.isRecord() && !Map.class.isAssignableFrom(type) && !type.getModule().isNamed();
+    }
+
+    private static boolean isChild(String child, String parent) {
+        return child.startsWith(parent) && child.charAt(parent.length()) == '.';
+    }
+
+    private static void diff(String path, Object a, Object b, Set<String> out) {
+        if (a == b) return;
+        if (a == null || b == null || a.getClass() != b.getClass()) {
+            out.add(path);
+        } else if (a.getClass().isRecord() && !a.getClass().getModule().isNamed()) {
+            diffProperties(path, a, b, out);
+        } else if (a instanceof Map<?, ?> ma && b instanceof Map<?, ?> mb) {
+            for (var e : ma.entrySet()) {
+                String child = child(path, String.valueOf(e.getKey()));
+                if (!mb.containsKey(e.getKey())) out.add(child);
+                else diff(child, e.getValue(), mb.get(e.getKey()), out);
+            }
+            for (Object key : mb.keySet()) {
+                if (!ma.containsKey(key)) out.add(child(path, String.valueOf(key)));
+            }
+        } else if (!Objects.deepEquals(a, b)) {
+            out.add(path);
+        }
+    }
+
+    private static void diffProperties(String path, Object a, Object b, Set<String> out) {
+        List<ClassCodec.Property> props = ClassCodec.of(a.getClass()).properties();
+        for (var prop : props) {
+            diff(child(path, prop.name()), prop.get(a), prop.get(b), out);
+        }
+    }
+
+    private static String child(String path, String name) {
+        return path.isEmpty() ? name : path + "." + name;
+    }
+}
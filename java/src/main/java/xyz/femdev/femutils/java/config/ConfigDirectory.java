@@ -0,0 +1,219 @@
+package xyz.femdev.femutils.java.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Manages a folder of config files that share one type, such as one file per kit or arena.
+ * <p>
+ * Each file is an entry whose id is its file name without the extension. Files are loaded
+ * in parallel, and {@link #reload()} only parses files that were added or modified since they
+ * were last seen; unchanged entries keep their existing value. Files that fail to load are
+ * reported through {@link #failures()} and keep their previous value, if any.
+ * </p>
+ *
+ * @param <T> the config data type of every file
+ */
+public final class ConfigDirectory<T> {
+
+    private final Path directory;
+    private final String extension;
+    private final Class<T> type;
+    private final ConfigHandle.Engine engine;
+    private final List<Consumer<Map<String, T>>> listeners = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    private Map<String, Entry<T>> entries = Map.of(); // guarded by lock
+    private Map<String, FileStamp> failedStamps = Map.of(); // guarded by lock
+    private volatile Map<String, T> values = Map.of();
+    private volatile Map<String, Throwable> failures = Map.of();
+
+    /**
+     * Creates the directory if needed and loads every file in it.
+     *
+     * @param directory folder holding the files
+     * @param extension file extension including the dot, e.g. {@code ".yml"}
+     * @param type      config class of every file
+     * @param engine    serialization backend
+     */
+    public ConfigDirectory(Path directory, String extension, Class<T> type, ConfigHandle.Engine engine) throws IOException {
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.extension = Objects.requireNonNull(extension, "extension");
+        this.type = Objects.requireNonNull(type, "type");
+        this.engine = Objects.requireNonNull(engine, "engine");
+        Files.createDirectories(directory);
+        reload();
+    }
+
+    /**
+     * @return the entry with the given id, or {@code null}
+     */
+    public T get(String id) {
+        return values.get(id);
+    }
+
+    /**
+     * @return an immutable id to value map of every loaded entry, sorted by id
+     */
+    public Map<String, T> values() {
+        return values;
+    }
+
+    /**
+     * @return errors of the files that failed to load in the last {@link #reload()}, by id
+     */
+    public Map<String, Throwable> failures() {
+        return failures;
+    }
+
+    /**
+     * @return the folder holding the files
+     */
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * Re-reads the directory: new and modified files are loaded in parallel, removed files are dropped,
+     * and unchanged entries are reused. Listeners run on the calling thread if anything changed.
+     *
+     * @return {@code true} if any entry was added, changed or removed
+     */
+    public boolean reload() throws IOException {
+        Map<String, T> snapshot;
+        synchronized (lock) {
+            Map<String, Path> files = list();
+            Map<String, Entry<T>> next = new TreeMap<>();
+            Map<String, Path> stale = new LinkedHashMap<>();
+            Map<String, Throwable> errors = new TreeMap<>();
+            Map<String, FileStamp> failed = new TreeMap<>();
+            for (var e : files.entrySet()) {
+                String id = e.getKey();
+                FileStamp stamp = FileStamp.read(e.getValue());
+                Entry<T> current = entries.get(id);
+                if (current != null && current.stamp().equals(stamp)) {
+                    next.put(id, current);
+                } else if (stamp != null && stamp.equals(failedStamps.get(id))) {
+                    // still broken, don't parse it again until it is edited
+                    errors.put(id, failures.get(id));
+                    failed.put(id, stamp);
+                    if (current != null) next.put(id, current);
+                } else {
+                    stale.put(id, e.getValue());
+                }
+            }
+
+            boolean changed = load(stale, next, errors, failed) || !files.keySet().containsAll(entries.keySet());
+            this.failures = Collections.unmodifiableMap(errors);
+            this.failedStamps = failed;
+            if (!changed) {
+                this.entries = next;
+                return false;
+            }
+            snapshot = publish(next);
+        }
+        for (Consumer<Map<String, T>> l : listeners) l.accept(snapshot);
+        return true;
+    }
+
+    /**
+     * Writes an entry to its file, creating it if needed.
+     *
+     * @param id    the entry id, used as the file name
+     * @param value the new value
+     */
+    public void save(String id, T value) throws IOException {
+        Objects.requireNonNull(value, "value");
+        Path path = directory.resolve(id + extension);
+        synchronized (lock) {
+            engine.save(path, value);
+            Map<String, Entry<T>> next = new TreeMap<>(entries);
+            next.put(id, new Entry<>(value, FileStamp.read(path)));
+            publish(next);
+        }
+    }
+
+    /**
+     * Registers a listener that runs with the new id to value map after a reload changed anything.
+     */
+    public void onReload(Consumer<Map<String, T>> listener) {
+        listeners.add(listener);
+    }
+
+    private Map<String, T> publish(Map<String, Entry<T>> next) {
+        Map<String, T> out = new LinkedHashMap<>(TypeCodecs.mapCapacity(next.size()));
+        for (var e : next.entrySet()) out.put(e.getKey(), e.getValue().value());
+        this.entries = next;
+        this.values = Collections.unmodifiableMap(out);
+        return this.values;
+    }
+
+    private Map<String, Path> list() throws IOException {
+        Map<String, Path> files = new TreeMap<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.forEach(p -> {
+                String name = p.getFileName().toString();
+                if (name.endsWith(extension) && !name.startsWith(".") && Files.isRegularFile(p)) {
+                    files.put(name.substring(0, name.length() - extension.length()), p);
+                }
+            });
+        }
+        return files;
+    }
+
+    /**
+     * Loads the given files in parallel.
+     *
+     * @return {@code true} if any of them loaded
+     */
+    private boolean load(Map<String, Path> stale, Map<String, Entry<T>> out,
+                         Map<String, Throwable> errors, Map<String, FileStamp> failed) throws IOException {
+        if (stale.isEmpty()) return false;
+        boolean loaded = false;
+        List<String> ids = new ArrayList<>(stale.keySet());
+        List<Future<Entry<T>>> futures = new ArrayList<>(ids.size());
+        ExecutorService pool = ConfigExecutors.loadPool(ids.size());
+        try {
+            for (String id : ids) {
+                Path path = stale.get(id);
+                futures.add(pool.submit(() -> {
+                    T value = engine.load(path, type, () -> null);
+                    if (value == null) throw new IOException("File is empty: " + path);
+                    return new Entry<>(value, FileStamp.read(path));
+                }));
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                try {
+                    out.put(id, futures.get(i).get());
+                    loaded = true;
+                } catch (ExecutionException | InterruptedException e) {
+                    if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                    errors.put(id, e instanceof ExecutionException ? e.getCause() : e);
+                    failed.put(id, FileStamp.read(stale.get(id)));
+                    Entry<T> previous = entries.get(id);
+                    if (previous != null) out.put(id, previous);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return loaded;
+    }
+
+    private record Entry<T>(T value, FileStamp stamp) {
+    }
+}
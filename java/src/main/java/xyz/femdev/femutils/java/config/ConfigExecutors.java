@@ -0,0 +1,46 @@
+package xyz.femdev.femutils.java.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared background threads used by the config system.
+ */
+public final class ConfigExecutors {
+
+    private ConfigExecutors() {
+    }
+
+    /**
+     * Single daemon thread that performs all asynchronous saves, so each file has at most one writer.
+     */
+    static ScheduledExecutorService saver() {
+        return SaverHolder.SAVER;
+    }
+
+    /**
+     * Temporary daemon pool for loading many files at once, bounded by the CPU count.
+     * The caller shuts it down when done.
+     *
+     * @param tasks number of files to load
+     */
+    public static ExecutorService loadPool(int tasks) {
+        int threads = Math.max(1, Math.min(tasks, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger ids = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "FemUtils-ConfigLoad-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static final class SaverHolder {
+        private static final ScheduledExecutorService SAVER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "FemUtils-ConfigSave");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
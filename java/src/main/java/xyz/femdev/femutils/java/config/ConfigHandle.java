@@ -1,10 +1,17 @@
 package xyz.femdev.femutils.java.config;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -19,7 +26,16 @@ public final class ConfigHandle<T> {
     private final Supplier<T> defaults;
     private final Engine engine;
     private final List<Consumer<T>> listeners = new CopyOnWriteArrayList<>();
+    private final List<ConfigSection<?>> sections = new CopyOnWriteArrayList<>();
+    private final List<ChangeListener<T>> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<DerivedValue<?>> derived = new CopyOnWriteArrayList<>();
+    private final Object loadLock = new Object();
+    private final Object saveLock = new Object();
     private volatile T value;
+    private volatile FileStamp stamp;
+    private volatile long writeBehindMillis;
+    private CompletableFuture<Void> pendingSave; // guarded by saveLock
+    private CompletableFuture<Void> writingSave; // guarded by saveLock, cleared once written
 
     /**
      * Creates a config handle for the given file and type.
@@ -35,6 +51,7 @@ public final class ConfigHandle<T> {
         this.defaults = defaults;
         this.engine = engine;
         this.value = engine.load(path, type, defaults);
+        this.stamp = FileStamp.read(path);
     }
 
     /**
@@ -48,16 +65,45 @@ public final class ConfigHandle<T> {
      * Reloads the config from disk and notifies listeners.
      */
     public void reload() throws IOException {
-        T newVal = engine.load(path, type, defaults);
-        this.value = newVal;
-        for (Consumer<T> l : listeners) l.accept(newVal);
+        reload(Runnable::run);
+    }
+
+    /**
+     * Reloads the config from disk on the calling thread, then notifies listeners on the given executor.
+     * The new value is visible to {@link #get()} before any listener runs.
+     *
+     * @param listenerExecutor executor that runs the reload listeners
+     */
+    public void reload(Executor listenerExecutor) throws IOException {
+        T oldVal;
+        T newVal;
+        synchronized (loadLock) {
+            oldVal = this.value;
+            newVal = engine.load(path, type, defaults);
+            this.value = newVal;
+            this.stamp = FileStamp.read(path);
+            invalidateSections();
+        }
+        updateDerived(newVal);
+        ConfigDiff diff = changeListeners.isEmpty() ? null : ConfigDiff.between(oldVal, newVal);
+        Objects.requireNonNull(listenerExecutor, "listenerExecutor").execute(() -> {
+            for (Consumer<T> l : listeners) l.accept(newVal);
+            if (diff == null || diff.isEmpty()) return;
+            for (ChangeListener<T> l : changeListeners) {
+                if (diff.changed(l.path())) l.listener().accept(newVal);
+            }
+        });
     }
 
     /**
      * Saves the current config to disk.
      */
     public void save() throws IOException {
-        engine.save(path, value);
+        synchronized (loadLock) {
+            engine.save(path, value);
+            this.stamp = FileStamp.read(path);
+            invalidateSections();
+        }
     }
 
     /**
@@ -65,9 +111,177 @@ public final class ConfigHandle<T> {
      */
     public void setAndSave(T newValue) throws IOException {
         this.value = newValue;
+        updateDerived(newValue);
         save();
     }
 
+    /**
+     * Saves the current config on the background save thread.
+     * <p>
+     * Saves requested while one is still pending collapse into a single write of the latest value,
+     * and share the returned future. Writes are atomic, so a crash never leaves a truncated file.
+     * </p>
+     *
+     * @return a future completed once the value has been written
+     */
+    public CompletableFuture<Void> saveAsync() {
+        synchronized (saveLock) {
+            if (pendingSave != null) return pendingSave;
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            pendingSave = future;
+            ConfigExecutors.saver().schedule(() -> runPendingSave(future), writeBehindMillis, TimeUnit.MILLISECONDS);
+            return future;
+        }
+    }
+
+    /**
+     * Sets the config to a new value and saves it asynchronously, see {@link #saveAsync()}.
+     */
+    public CompletableFuture<Void> setAndSaveAsync(T newValue) {
+        this.value = newValue;
+        updateDerived(newValue);
+        return saveAsync();
+    }
+
+    /**
+     * Enables write-behind: asynchronous saves wait for the given window before writing, so
+     * every change made within the window is written once. Use {@link Duration#ZERO} to disable.
+     * Call {@link #flush()} before shutdown so no pending change is lost.
+     *
+     * @param window how long to hold back asynchronous saves
+     * @return this handle
+     */
+    public ConfigHandle<T> writeBehind(Duration window) {
+        this.writeBehindMillis = window.toMillis();
+        return this;
+    }
+
+    /**
+     * Writes any pending asynchronous save immediately on the calling thread,
+     * and waits for a save that is already being written.
+     */
+    public void flush() throws IOException {
+        CompletableFuture<Void> future;
+        CompletableFuture<Void> writing;
+        synchronized (saveLock) {
+            future = pendingSave;
+            writing = writingSave;
+            pendingSave = null;
+        }
+        if (future == null) {
+            // nothing pending; wait out a write the save thread has taken, failures were reported through its future
+            if (writing != null) writing.handle((v, t) -> null).join();
+            return;
+        }
+        try {
+            save();
+            future.complete(null);
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void runPendingSave(CompletableFuture<Void> future) {
+        synchronized (saveLock) {
+            if (pendingSave != future) return; // already written by flush()
+            pendingSave = null;
+            writingSave = future;
+        }
+        try {
+            save();
+            future.complete(null);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        } finally {
+            synchronized (saveLock) {
+                if (writingSave == future) writingSave = null;
+            }
+        }
+    }
+
+    /**
+     * Returns a value computed from the config, cached until the config is reloaded or replaced.
+     * The function runs right away and then on the thread that reloads or sets the config,
+     * before reload listeners are notified.
+     *
+     * @param function derives the value, e.g. parses a message or compiles a pattern
+     */
+    public <R> DerivedValue<R> derive(Function<? super T, ? extends R> function) {
+        return bind(new DerivedValue<>(function, DerivedValue.Mode.EAGER, null, value));
+    }
+
+    /**
+     * Like {@link #derive(Function)}, but recomputes on the first read after the config changed,
+     * so values that are rarely used cost nothing on reload.
+     */
+    public <R> DerivedValue<R> deriveLazy(Function<? super T, ? extends R> function) {
+        return bind(new DerivedValue<>(function, DerivedValue.Mode.LAZY, null, value));
+    }
+
+    /**
+     * Like {@link #derive(Function)}, but recomputes on the given executor after the config changed.
+     * Reads return the previous value until the new one is ready.
+     *
+     * @param executor runs the recomputation, e.g. an async scheduler
+     */
+    public <R> DerivedValue<R> derive(Function<? super T, ? extends R> function, Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+        return bind(new DerivedValue<>(function, DerivedValue.Mode.ASYNC, executor, value));
+    }
+
+    private <R> DerivedValue<R> bind(DerivedValue<R> value) {
+        derived.add(value);
+        // catch a reload that raced with the first computation
+        value.update(this.value);
+        return value;
+    }
+
+    private void updateDerived(T newValue) {
+        for (DerivedValue<?> d : derived) d.update(newValue);
+    }
+
+    /**
+     * Returns a lazy view of a map section of the file, decoding each entry only when it is first read.
+     * <p>
+     * Meant for large documents with many independent entries (shop items, arenas, ...) of which only
+     * a few are used. The config type {@code T} should leave the section out; the raw subtree is read
+     * on first access and decoded entries are cached until the next {@link #reload()} or {@link #save()}.
+     * Requires an engine that supports {@link Engine#readTree}. Engines that write a fresh document
+     * on save drop keys {@code T} does not declare, so save such files only with {@code SimpleYamlEngine}.
+     * </p>
+     *
+     * @param path dotted path of the section, or {@code ""} for the top level
+     * @param type entry type, may be parameterized
+     */
+    public <V> ConfigSection<V> section(String path, Type type) {
+        ConfigSection<V> section = new ConfigSection<>(this, Objects.requireNonNull(path, "path"), type);
+        sections.add(section);
+        return section;
+    }
+
+    /**
+     * Reads the file once for every section that is not loaded yet.
+     */
+    void loadSections() throws IOException {
+        synchronized (loadLock) {
+            Object tree = null;
+            for (ConfigSection<?> section : sections) {
+                if (!section.isStale()) continue;
+                if (tree == null) tree = engine.readTree(path);
+                section.fill(tree);
+            }
+        }
+    }
+
+    Object decode(Object raw, Type type) {
+        return engine.decode(raw, type);
+    }
+
+    private void invalidateSections() {
+        for (ConfigSection<?> section : sections) section.invalidate();
+    }
+
     /**
      * Registers a listener that runs when the config is reloaded.
      *
@@ -77,6 +291,18 @@ public final class ConfigHandle<T> {
         listeners.add(listener);
     }
 
+    /**
+     * Registers a listener that runs after a reload only if the value at the given path changed,
+     * so expensive rebuilds can be skipped when their inputs are the same.
+     * See {@link ConfigDiff} for how values are compared.
+     *
+     * @param path     dotted path of a property, e.g. {@code "messages.ping"}, or {@code ""} for any change
+     * @param listener handler for the updated config value
+     */
+    public void onChange(String path, Consumer<T> listener) {
+        changeListeners.add(new ChangeListener<>(Objects.requireNonNull(path, "path"), listener));
+    }
+
     /**
      * @return the config file path
      */
@@ -84,11 +310,36 @@ public final class ConfigHandle<T> {
         return path;
     }
 
+    /**
+     * @return {@code true} if the file differs from what this handle last loaded or saved
+     */
+    boolean changedOnDisk() throws IOException {
+        return !Objects.equals(stamp, FileStamp.read(path));
+    }
+
+    private record ChangeListener<T>(String path, Consumer<T> listener) {
+    }
+
     /**
      * Backend interface for loading and saving config data.
      */
     public interface Engine {
         <T> T load(Path path, Class<T> type, Supplier<T> defaults) throws IOException;
         void save(Path path, Object value) throws IOException;
+
+        /**
+         * Reads the file as a raw tree of maps, lists and scalars without decoding it.
+         * Used by {@link ConfigHandle#section}.
+         */
+        default Object readTree(Path path) throws IOException {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support sections");
+        }
+
+        /**
+         * Decodes a subtree returned by {@link #readTree} into the given type.
+         */
+        default Object decode(Object tree, Type type) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support sections");
+        }
     }
 }
@@ -0,0 +1,110 @@
+package xyz.femdev.femutils.java.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pull-based reader over a structured config document.
+ * <p>
+ * Lets {@link StreamMapper} decode a document straight into objects, one token at a time,
+ * without building an intermediate map/list tree.
+ * </p>
+ */
+public interface ConfigReader {
+
+    /**
+     * Kinds of tokens a reader can produce.
+     */
+    enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        SCALAR,
+        NULL,
+        END_DOCUMENT
+    }
+
+    /**
+     * @return the next token, without consuming it
+     */
+    Token peek() throws IOException;
+
+    void beginObject() throws IOException;
+
+    void endObject() throws IOException;
+
+    void beginArray() throws IOException;
+
+    void endArray() throws IOException;
+
+    /**
+     * @return {@code true} if the current object or array has more entries
+     */
+    boolean hasNext() throws IOException;
+
+    /**
+     * Consumes the key of the next object entry.
+     */
+    String nextName() throws IOException;
+
+    /**
+     * Consumes a scalar and returns its text.
+     */
+    String nextString() throws IOException;
+
+    /**
+     * Consumes a scalar and returns it as a {@link String}, {@link Boolean}, {@link Number} or {@code null},
+     * as the format would resolve it.
+     */
+    Object nextScalar() throws IOException;
+
+    boolean nextBoolean() throws IOException;
+
+    long nextLong() throws IOException;
+
+    double nextDouble() throws IOException;
+
+    void nextNull() throws IOException;
+
+    /**
+     * Consumes the next value, including any nested objects or arrays.
+     */
+    void skipValue() throws IOException;
+
+    /**
+     * Consumes the next value as a generic tree of maps, lists and scalars.
+     */
+    default Object readTree() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT -> {
+                beginObject();
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (hasNext()) {
+                    String key = nextName();
+                    map.put(key, readTree());
+                }
+                endObject();
+                return map;
+            }
+            case BEGIN_ARRAY -> {
+                beginArray();
+                List<Object> list = new ArrayList<>();
+                while (hasNext()) list.add(readTree());
+                endArray();
+                return list;
+            }
+            case NULL -> {
+                nextNull();
+                return null;
+            }
+            case SCALAR -> {
+                return nextScalar();
+            }
+            default -> throw new IllegalStateException("Expected a value but found " + peek());
+        }
+    }
+}
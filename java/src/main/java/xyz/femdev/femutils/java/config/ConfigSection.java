@@ -0,0 +1,127 @@
+package xyz.femdev.femutils.java.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lazily decoded view of a map section of a config file, see {@link ConfigHandle#section}.
+ * <p>
+ * Only the raw subtree is kept in memory; each entry is decoded on first access and cached
+ * until the owning handle is reloaded or saved.
+ * </p>
+ *
+ * @param <V> the entry type
+ */
+public final class ConfigSection<V> {
+
+    private final ConfigHandle<?> handle;
+    private final String path;
+    private final Type type;
+    private volatile State state; // null until loaded, reset on reload
+
+    ConfigSection(ConfigHandle<?> handle, String path, Type type) {
+        this.handle = handle;
+        this.path = path;
+        this.type = type;
+    }
+
+    /**
+     * @return the decoded entry, or {@code null} if the section has no such key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        State s = state();
+        Object cached = s.decoded.get(key);
+        if (cached != null) return (V) cached;
+        Object raw = s.raw.get(key);
+        if (raw == null) return null;
+        Object value = handle.decode(raw, type);
+        if (value == null) return null;
+        Object prev = s.decoded.putIfAbsent(key, value);
+        return (V) (prev != null ? prev : value);
+    }
+
+    /**
+     * @return {@code true} if the section has the given key
+     */
+    public boolean contains(String key) {
+        return state().raw.containsKey(key);
+    }
+
+    /**
+     * @return all keys of the section in file order; none of them are decoded
+     */
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(state().raw.keySet());
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return state().raw.size();
+    }
+
+    /**
+     * @return the dotted path of this section in the file
+     */
+    public String path() {
+        return path;
+    }
+
+    private State state() {
+        State s;
+        while ((s = state) == null) {
+            try {
+                handle.loadSections();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read section '" + path + "' of " + handle.path(), e);
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Takes the raw subtree from a freshly read document. Called with the handle's load lock held.
+     */
+    void fill(Object document) {
+        Object node = document;
+        for (String part : path.split("\\.")) {
+            if (part.isEmpty()) continue;
+            node = node instanceof Map<?, ?> m ? m.get(part) : null;
+        }
+        Map<String, Object> raw = new LinkedHashMap<>();
+        if (node instanceof Map<?, ?> m) {
+            for (var e : m.entrySet()) raw.put(String.valueOf(e.getKey()), e.getValue());
+        }
+        state = new State(raw);
+    }
+
+    /**
+     * @return {@code true} if the section needs to be read again
+     */
+    boolean isStale() {
+        return state == null;
+    }
+
+    /**
+     * Drops the raw subtree and every decoded entry. Called with the handle's load lock held.
+     */
+    void invalidate() {
+        state = null;
+    }
+
+    private static final class State {
+        final Map<String, Object> raw;
+        final Map<String, Object> decoded = new ConcurrentHashMap<>();
+
+        State(Map<String, Object> raw) {
+            this.raw = raw;
+        }
+    }
+}
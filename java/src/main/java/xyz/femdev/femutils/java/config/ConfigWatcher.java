@@ -0,0 +1,177 @@
+package xyz.femdev.femutils.java.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches config files for external edits and reloads their {@link ConfigHandle}s automatically.
+ * <p>
+ * Bursts of writes (editors often save in several steps) are debounced into one reload.
+ * Parsing happens on a background thread; the new value is swapped in atomically and
+ * listeners are dispatched on the executor given to {@link #watch(ConfigHandle, Executor)}.
+ * One watcher can serve any number of handles.
+ * </p>
+ */
+public final class ConfigWatcher implements AutoCloseable {
+
+    private final long debounceMillis;
+    private final WatchService watchService;
+    private final ScheduledExecutorService worker;
+    private final Thread poller;
+    private final Map<Path, WatchKey> directories = new ConcurrentHashMap<>();
+    private final Map<Path, Watched> files = new ConcurrentHashMap<>();
+    private volatile Consumer<Throwable> errorHandler = Throwable::printStackTrace;
+    private volatile boolean closed;
+
+    /**
+     * Creates a watcher with a 250ms debounce window.
+     */
+    public ConfigWatcher() throws IOException {
+        this(Duration.ofMillis(250));
+    }
+
+    /**
+     * @param debounce quiet period to wait after the last write before reloading
+     */
+    public ConfigWatcher(Duration debounce) throws IOException {
+        this.debounceMillis = debounce.toMillis();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "FemUtils-ConfigReload");
+            t.setDaemon(true);
+            return t;
+        });
+        this.poller = new Thread(this::poll, "FemUtils-ConfigWatcher");
+        this.poller.setDaemon(true);
+        this.poller.start();
+    }
+
+    /**
+     * Sets a handler for reload failures. The previous config value is kept when a reload fails.
+     */
+    public ConfigWatcher onError(Consumer<Throwable> handler) {
+        this.errorHandler = Objects.requireNonNull(handler, "handler");
+        return this;
+    }
+
+    /**
+     * Starts watching the handle's file.
+     *
+     * @param handle           the config to reload on change
+     * @param listenerExecutor executor that runs the handle's reload listeners
+     */
+    public synchronized void watch(ConfigHandle<?> handle, Executor listenerExecutor) throws IOException {
+        if (closed) throw new IllegalStateException("ConfigWatcher is closed");
+        Path file = handle.path().toAbsolutePath().normalize();
+        Path dir = file.getParent();
+        if (!directories.containsKey(dir)) {
+            WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            directories.put(dir, key);
+        }
+        files.put(file, new Watched(handle, Objects.requireNonNull(listenerExecutor, "listenerExecutor")));
+    }
+
+    /**
+     * Stops watching the handle's file.
+     */
+    public synchronized void unwatch(ConfigHandle<?> handle) {
+        Path file = handle.path().toAbsolutePath().normalize();
+        Watched w = files.remove(file);
+        if (w == null) return;
+        w.cancel();
+
+        Path dir = file.getParent();
+        boolean dirInUse = files.keySet().stream().anyMatch(p -> dir.equals(p.getParent()));
+        if (!dirInUse) {
+            WatchKey key = directories.remove(dir);
+            if (key != null) key.cancel();
+        }
+    }
+
+    /**
+     * Stops watching all files and shuts down the background threads.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        files.values().forEach(Watched::cancel);
+        files.clear();
+        directories.clear();
+        worker.shutdownNow();
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void poll() {
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    files.forEach((file, w) -> {
+                        if (dir.equals(file.getParent())) w.schedule();
+                    });
+                    continue;
+                }
+                Watched w = files.get(dir.resolve((Path) event.context()));
+                if (w != null) w.schedule();
+            }
+            key.reset();
+        }
+    }
+
+    private final class Watched {
+        private final ConfigHandle<?> handle;
+        private final Executor listenerExecutor;
+        private ScheduledFuture<?> pending;
+
+        private Watched(ConfigHandle<?> handle, Executor listenerExecutor) {
+            this.handle = handle;
+            this.listenerExecutor = listenerExecutor;
+        }
+
+        private synchronized void schedule() {
+            if (pending != null) pending.cancel(false);
+            if (!closed) pending = worker.schedule(this::reload, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void cancel() {
+            if (pending != null) pending.cancel(false);
+            pending = null;
+        }
+
+        private void reload() {
+            try {
+                if (handle.changedOnDisk()) handle.reload(listenerExecutor);
+            } catch (Throwable t) {
+                errorHandler.accept(t);
+            }
+        }
+    }
+}
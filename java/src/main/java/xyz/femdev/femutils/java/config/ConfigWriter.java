@@ -0,0 +1,91 @@
+package xyz.femdev.femutils.java.config;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Push-based writer for a structured config document, the counterpart of {@link ConfigReader}.
+ */
+public interface ConfigWriter {
+
+    /**
+     * Writes a header comment. Must be called before anything else; formats without comments ignore it.
+     */
+    default void header(String[] lines) throws IOException {
+    }
+
+    /**
+     * Attaches a comment to the next {@link #name(String)}. Formats without comments ignore it.
+     */
+    default void comment(String[] lines) throws IOException {
+    }
+
+    void beginObject() throws IOException;
+
+    void endObject() throws IOException;
+
+    void beginArray() throws IOException;
+
+    void endArray() throws IOException;
+
+    /**
+     * Writes the key of the next object entry.
+     */
+    void name(String name) throws IOException;
+
+    void value(String value) throws IOException;
+
+    void value(boolean value) throws IOException;
+
+    void value(long value) throws IOException;
+
+    void value(double value) throws IOException;
+
+    void nullValue() throws IOException;
+
+    /**
+     * Writes a number, keeping integral types integral.
+     */
+    default void value(Number value) throws IOException {
+        if (value instanceof Double || value instanceof Float || value instanceof BigDecimal) {
+            value(value.doubleValue());
+        } else if (value instanceof BigInteger big && big.bitLength() >= Long.SIZE) {
+            value(big.toString());
+        } else {
+            value(value.longValue());
+        }
+    }
+
+    /**
+     * Writes a generic tree of maps, collections and scalars, as produced by {@link ReflectMapper#toTree(Object)}.
+     */
+    default void writeTree(Object tree) throws IOException {
+        if (tree == null) {
+            nullValue();
+        } else if (tree instanceof String s) {
+            value(s);
+        } else if (tree instanceof Boolean b) {
+            value(b.booleanValue());
+        } else if (tree instanceof Number n) {
+            value(n);
+        } else if (tree instanceof Map<?, ?> map) {
+            beginObject();
+            for (var e : map.entrySet()) {
+                name(String.valueOf(e.getKey()));
+                writeTree(e.getValue());
+            }
+            endObject();
+        } else if (tree instanceof Collection<?> list) {
+            beginArray();
+            for (Object o : list) writeTree(o);
+            endArray();
+        } else if (tree instanceof Enum<?> e) {
+            value(e.name());
+        } else {
+            value(tree.toString());
+        }
+    }
+}
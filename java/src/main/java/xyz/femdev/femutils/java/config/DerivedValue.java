@@ -0,0 +1,110 @@
+package xyz.femdev.femutils.java.config;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * A value computed from a {@link ConfigHandle}'s config and cached until the config changes,
+ * see {@link ConfigHandle#derive}.
+ * <p>
+ * Reading it is a single volatile read once computed, so parsed messages, compiled patterns or
+ * built items can be used on hot paths without re-deriving them on every call. A new config that
+ * is {@code equals} to the previous one keeps the cached value.
+ * </p>
+ *
+ * @param <R> the derived type
+ */
+public final class DerivedValue<R> {
+
+    private final Function<Object, ? extends R> function;
+    private final Mode mode;
+    private final Executor executor;
+    private volatile Object latest;
+    private volatile State<R> state;
+
+    @SuppressWarnings("unchecked")
+    DerivedValue(Function<?, ? extends R> function, Mode mode, Executor executor, Object initial) {
+        this.function = (Function<Object, ? extends R>) Objects.requireNonNull(function, "function");
+        this.mode = mode;
+        this.executor = executor;
+        this.latest = initial;
+        // the first value is always available, whatever the mode
+        this.state = mode == Mode.LAZY ? new State<>(initial, null, false) : compute(initial);
+    }
+
+    /**
+     * @return the value derived from the current config
+     */
+    public R get() {
+        State<R> s = state;
+        if (s.computed) return s.value;
+        synchronized (this) {
+            s = state;
+            if (!s.computed) {
+                s = compute(s.source);
+                state = s;
+            }
+            return s.value;
+        }
+    }
+
+    /**
+     * Called by the handle after its value was replaced.
+     */
+    void update(Object source) {
+        if (Objects.equals(latest, source)) return;
+        latest = source;
+        switch (mode) {
+            case EAGER -> {
+                try {
+                    publish(source, compute(source));
+                } catch (RuntimeException e) {
+                    // retried, and reported, by the next get()
+                    publish(source, new State<>(source, null, false));
+                }
+            }
+            case LAZY -> publish(source, new State<>(source, null, false));
+            case ASYNC -> {
+                try {
+                    executor.execute(() -> {
+                        // superseded by a newer config before it ran
+                        if (latest != source) return;
+                        try {
+                            publish(source, compute(source));
+                        } catch (RuntimeException e) {
+                            publish(source, new State<>(source, null, false));
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // computed, or reported, by the next get() instead
+                    publish(source, new State<>(source, null, false));
+                }
+            }
+        }
+    }
+
+    private State<R> compute(Object source) {
+        return new State<>(source, function.apply(source), true);
+    }
+
+    private synchronized void publish(Object source, State<R> s) {
+        if (latest == source) state = s;
+    }
+
+    /**
+     * When a derived value is recomputed.
+     */
+    enum Mode {
+        /** On the thread that replaced the config. */
+        EAGER,
+        /** On the first {@link #get()} after the config was replaced. */
+        LAZY,
+        /** On an executor; {@link #get()} returns the previous value until it is done. */
+        ASYNC
+    }
+
+    private record State<R>(Object source, R value, boolean computed) {
+    }
+}
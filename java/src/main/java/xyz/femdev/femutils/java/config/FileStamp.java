@@ -0,0 +1,30 @@
+package xyz.femdev.femutils.java.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Size and modification time of a file, used to tell whether it changed since it was last seen.
+ *
+ * @param size     file size in bytes
+ * @param modified last modification time in epoch milliseconds
+ */
+public record FileStamp(long size, long modified) {
+
+    /**
+     * Reads the current stamp of a file.
+     *
+     * @return the stamp, or {@code null} if the file does not exist
+     */
+    public static FileStamp read(Path path) throws IOException {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileStamp(attrs.size(), attrs.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package xyz.femdev.femutils.java.config;
+
+import java.util.List;
+
+/**
+ * A {@link TypeSerializer} generated at compile time for a config record by the FemUtils
+ * annotation processor ({@code config-processor} module).
+ * <p>
+ * Generated codecs are found by {@link TypeRegistry} automatically, so records annotated with
+ * {@link Header} or {@link Comment} load and save without reflection. The codec also carries the
+ * header and comment metadata, so writers do not have to scan annotations.
+ * </p>
+ *
+ * @param <T> the record type
+ */
+public interface GeneratedCodec<T> extends TypeSerializer<T> {
+
+    /**
+     * Suffix of generated codec class names, appended to the record's nested name with {@code _}
+     * in place of {@code $}: {@code com.example.Outer.Settings} becomes {@code com.example.Outer_Settings_Codec}.
+     */
+    String SUFFIX = "_Codec";
+
+    /**
+     * @return the record type this codec handles
+     */
+    Class<T> type();
+
+    /**
+     * @return the {@link Header} lines, or {@code null} if not annotated
+     */
+    String[] header();
+
+    /**
+     * @return the record components, in declaration order
+     */
+    List<Property> properties();
+
+    /**
+     * Reads a component by its index in {@link #properties()}.
+     */
+    Object get(T value, int index);
+
+    /**
+     * Metadata of a single record component.
+     *
+     * @param name    the component name
+     * @param type    the erased component type
+     * @param comment the {@link Comment} lines, or {@code null} if not annotated
+     */
+    record Property(String name, Class<?> type, String[] comment) {
+    }
+}
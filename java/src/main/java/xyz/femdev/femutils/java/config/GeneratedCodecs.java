@@ -0,0 +1,43 @@
+package xyz.femdev.femutils.java.config;
+
+import java.util.Optional;
+
+/**
+ * Locates codecs generated by the annotation processor, by naming convention.
+ */
+final class GeneratedCodecs {
+
+    private static final ClassValue<Optional<GeneratedCodec<?>>> CACHE = new ClassValue<>() {
+        @Override
+        protected Optional<GeneratedCodec<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(load(type));
+        }
+    };
+
+    private GeneratedCodecs() {
+    }
+
+    /**
+     * @return the generated codec for a record, or {@code null} if none was generated
+     */
+    static GeneratedCodec<?> find(Class<?> type) {
+        if (!type.isRecord()) return null;
+        return CACHE.get(type).orElse(null);
+    }
+
+    private static GeneratedCodec<?> load(Class<?> type) {
+        String name = type.getName();
+        int pkg = name.lastIndexOf('.') + 1;
+        String codecName = name.substring(0, pkg) + name.substring(pkg).replace('$', '_') + GeneratedCodec.SUFFIX;
+        try {
+            Class<?> codecClass = Class.forName(codecName, true, type.getClassLoader());
+            if (!GeneratedCodec.class.isAssignableFrom(codecClass)) return null;
+            GeneratedCodec<?> codec = (GeneratedCodec<?>) codecClass.getConstructor().newInstance();
+            return codec.type() == type ? codec : null;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Cannot instantiate generated codec " + codecName, e);
+        }
+    }
+}
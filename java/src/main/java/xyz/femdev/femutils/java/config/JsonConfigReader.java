@@ -0,0 +1,125 @@
+package xyz.femdev.femutils.java.config;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+
+/**
+ * {@link ConfigReader} over a Gson {@link JsonReader}. Comments and other lenient syntax are accepted.
+ */
+final class JsonConfigReader implements ConfigReader {
+
+    private final JsonReader reader;
+
+    JsonConfigReader(Reader in) {
+        this.reader = new JsonReader(in);
+        this.reader.setStrictness(Strictness.LENIENT);
+    }
+
+    @Override
+    public Token peek() throws IOException {
+        return switch (reader.peek()) {
+            case BEGIN_OBJECT -> Token.BEGIN_OBJECT;
+            case END_OBJECT -> Token.END_OBJECT;
+            case BEGIN_ARRAY -> Token.BEGIN_ARRAY;
+            case END_ARRAY -> Token.END_ARRAY;
+            case NAME, STRING, NUMBER, BOOLEAN -> Token.SCALAR;
+            case NULL -> Token.NULL;
+            case END_DOCUMENT -> Token.END_DOCUMENT;
+        };
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        reader.beginObject();
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        reader.endObject();
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        reader.beginArray();
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        reader.endArray();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        return reader.hasNext();
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        return reader.nextName();
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        if (reader.peek() == JsonToken.BOOLEAN) return Boolean.toString(reader.nextBoolean());
+        return reader.nextString();
+    }
+
+    @Override
+    public Object nextScalar() throws IOException {
+        return switch (reader.peek()) {
+            case BOOLEAN -> reader.nextBoolean();
+            case NUMBER -> parseNumber(reader.nextString());
+            case NULL -> {
+                reader.nextNull();
+                yield null;
+            }
+            default -> reader.nextString();
+        };
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        if (reader.peek() == JsonToken.STRING) {
+            String s = reader.nextString();
+            if (s.equalsIgnoreCase("true")) return true;
+            if (s.equalsIgnoreCase("false")) return false;
+            throw new IllegalArgumentException("Not a boolean: " + s + " at " + reader.getPath());
+        }
+        return reader.nextBoolean();
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        return reader.nextLong();
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        return reader.nextDouble();
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        reader.nextNull();
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        reader.skipValue();
+    }
+
+    private static Number parseNumber(String text) {
+        if (text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+            return Double.parseDouble(text);
+        }
+        BigInteger big = new BigInteger(text);
+        if (big.bitLength() < Integer.SIZE) return big.intValue();
+        if (big.bitLength() < Long.SIZE) return big.longValue();
+        return big;
+    }
+}
@@ -0,0 +1,79 @@
+package xyz.femdev.femutils.java.config;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * {@link ConfigWriter} over a Gson {@link JsonWriter}. Comments are dropped, since JSON has none.
+ */
+final class JsonConfigWriter implements ConfigWriter {
+
+    private final JsonWriter writer;
+
+    JsonConfigWriter(Writer out) {
+        this.writer = new JsonWriter(out);
+        this.writer.setIndent("  ");
+        this.writer.setStrictness(Strictness.LENIENT);
+        this.writer.setSerializeNulls(true);
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        writer.beginObject();
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        writer.endObject();
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        writer.beginArray();
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        writer.endArray();
+    }
+
+    @Override
+    public void name(String name) throws IOException {
+        writer.name(name);
+    }
+
+    @Override
+    public void value(String value) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    public void value(boolean value) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    public void value(long value) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    public void value(double value) throws IOException {
+        writer.value(value);
+    }
+
+    @Override
+    public void nullValue() throws IOException {
+        writer.nullValue();
+    }
+
+    /**
+     * Flushes the underlying writer.
+     */
+    void finish() throws IOException {
+        writer.flush();
+    }
+}
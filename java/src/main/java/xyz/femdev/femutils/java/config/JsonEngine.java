@@ -0,0 +1,76 @@
+package xyz.femdev.femutils.java.config;
+
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Config engine for JSON files, streaming through Gson's {@code JsonReader}/{@code JsonWriter}.
+ * <p>
+ * Meant for machine-written data (catalogs, leaderboards, cached state) that is too large
+ * for YAML. Uses the same record/POJO/{@link TypeRegistry} rules as {@link ReflectMapper};
+ * {@link Comment} and {@link Header} annotations are ignored.
+ * </p>
+ */
+public final class JsonEngine implements ConfigHandle.Engine {
+
+    private final StreamMapper mapper;
+
+    /**
+     * @param registry type registry for custom serializers
+     */
+    public JsonEngine(TypeRegistry registry) {
+        this.mapper = new StreamMapper(Objects.requireNonNull(registry));
+    }
+
+    @Override
+    public <T> T load(Path path, Class<T> type, Supplier<T> defaults) throws IOException {
+        if (Files.notExists(path)) {
+            T def = defaults.get();
+            save(path, def);
+            return def;
+        }
+        if (Files.size(path) == 0) {
+            return mapper.treeMapper().toObject(new LinkedHashMap<>(), type);
+        }
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return mapper.read(new JsonConfigReader(reader), type);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            throw new IOException("Failed to load JSON " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object readTree(Path path) throws IOException {
+        if (Files.notExists(path) || Files.size(path) == 0) return new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return new JsonConfigReader(reader).readTree();
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            throw new IOException("Failed to load JSON " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object decode(Object tree, Type type) {
+        return mapper.treeMapper().toObject(tree, type);
+    }
+
+    @Override
+    public void save(Path path, Object value) throws IOException {
+        StringWriter buffer = new StringWriter();
+        JsonConfigWriter out = new JsonConfigWriter(buffer);
+        mapper.write(out, value);
+        out.finish();
+        AtomicFiles.writeString(path, buffer.append('\n').toString());
+    }
+}
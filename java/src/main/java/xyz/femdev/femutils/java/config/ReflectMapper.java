@@ -1,24 +1,26 @@
 package xyz.femdev.femutils.java.config;
 
-import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Array;
 import java.lang.reflect.Type;
 import java.util.*;
 
 /**
  * Maps objects to and from generic trees (maps/lists), using reflection.
  * Supports records, POJOs, and custom serializers via {@link TypeRegistry}.
+ * Record and POJO accessors are resolved once per class through {@link ClassCodec}, and decoders
+ * for generic types, enums, sets and arrays are compiled once per {@link Type}.
  */
 public final class ReflectMapper {
 
     private final TypeRegistry registry;
+    private final TypeCodecs codecs;
 
     /**
      * @param registry the type registry for custom serializers
      */
     public ReflectMapper(TypeRegistry registry) {
         this.registry = registry;
+        this.codecs = new TypeCodecs(this, registry);
     }
 
     /**
@@ -69,6 +71,7 @@ public final class ReflectMapper {
                 || type == Double.class
                 || type == Character.class
                 || type == String.class
+                || type == Object.class
         ) {
             return (T) raw;
         }
@@ -78,6 +81,10 @@ public final class ReflectMapper {
             return ser.deserialize(raw, this, type);
         }
 
+        if (TypeCodecs.handles(type)) {
+            return (T) codecs.decoder(type).decode(raw);
+        }
+
         if (List.class.isAssignableFrom(type)) {
             return (T) list(raw, Object.class);
         }
@@ -90,6 +97,15 @@ public final class ReflectMapper {
         return fromPojo(raw, type);
     }
 
+    /**
+     * Converts raw data into an object of the given, possibly parameterized, type.
+     * Element and value types of lists and maps are applied at every level.
+     */
+    public Object toObject(Object raw, Type type) {
+        if (type instanceof Class<?> c) return toObject(raw, c);
+        return codecs.decoder(type).decode(raw);
+    }
+
     /**
      * Converts an object to a tree-like structure (map or list) suitable for serialization.
      */
@@ -101,108 +117,53 @@ public final class ReflectMapper {
         TypeSerializer<Object> ser = registry.find(type);
         if (ser != null) return ser.serialize(obj, this);
 
+        if (obj instanceof String || obj instanceof Number || obj instanceof Boolean || obj instanceof Character) {
+            return obj;
+        }
+        if (obj instanceof Enum<?> e) return e.name();
+        if (type.isArray()) {
+            int length = Array.getLength(obj);
+            List<Object> out = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) out.add(toTree(Array.get(obj, i)));
+            return out;
+        }
+        if (obj instanceof Collection<?> c) {
+            List<Object> out = new ArrayList<>(c.size());
+            for (Object o : c) out.add(toTree(o));
+            return out;
+        }
+        if (obj instanceof Map<?, ?> m) {
+            Map<Object, Object> out = new LinkedHashMap<>(TypeCodecs.mapCapacity(m.size()));
+            for (var e : m.entrySet()) out.put(toTree(e.getKey()), toTree(e.getValue()));
+            return out;
+        }
         if (type.isRecord()) return recordToMap(obj);
         return pojoToMap(obj);
     }
 
+    @SuppressWarnings("unchecked")
     private <T> T fromRecord(Object raw, Class<T> type) {
-        if (!(raw instanceof Map<?, ?> map))
-            throw new IllegalArgumentException("Expected map for " + type.getName());
-
-        RecordComponent[] comps = type.getRecordComponents();
-        Object[] args = new Object[comps.length];
-        for (int i = 0; i < comps.length; i++) {
-            var rc = comps[i];
-            Object rawVal = map.get(rc.getName());
-            Class<?> compType = rc.getType();
-            Object converted;
-
-            if (List.class.isAssignableFrom(compType)) {
-                Type generic = rc.getGenericType();
-                Class<?> elemType = Object.class;
-                if (generic instanceof ParameterizedType pt) {
-                    Type arg = pt.getActualTypeArguments()[0];
-                    if (arg instanceof Class<?> c) elemType = c;
-                }
-                converted = list(rawVal, elemType);
-
-            } else if (Map.class.isAssignableFrom(compType)) {
-                Type generic = rc.getGenericType();
-                Class<?> keyType = Object.class, valType = Object.class;
-                if (generic instanceof ParameterizedType pt) {
-                    Type[] args0 = pt.getActualTypeArguments();
-                    if (args0[0] instanceof Class<?> ck) keyType = ck;
-                    if (args0[1] instanceof Class<?> cv) valType = cv;
-                }
-                converted = map(rawVal, keyType, valType);
-
-            } else {
-                converted = toObject(rawVal, compType);
-            }
-
-            args[i] = converted;
-        }
-
-        try {
-            var ctor = type.getDeclaredConstructor(
-                    Arrays.stream(comps).map(RecordComponent::getType).toArray(Class[]::new)
-            );
-            ctor.setAccessible(true);
-            return ctor.newInstance(args);
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException(e);
-        }
+        return (T) codecs.plan(type).decode(raw);
     }
 
     private Object recordToMap(Object obj) {
-        Map<String, Object> out = new LinkedHashMap<>();
-        for (var rc : obj.getClass().getRecordComponents()) {
-            try {
-                Object val = rc.getAccessor().invoke(obj);
-                out.put(rc.getName(), toTree(val));
-            } catch (ReflectiveOperationException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        return out;
+        return propertiesToMap(ClassCodec.of(obj.getClass()), obj);
     }
 
+    @SuppressWarnings("unchecked")
     private <T> T fromPojo(Object raw, Class<T> type) {
-        if (!(raw instanceof Map<?, ?> map))
-            throw new IllegalArgumentException("Expected map for " + type.getName());
-
-        T instance;
-        try {
-            var ctor = type.getDeclaredConstructor();
-            ctor.setAccessible(true);
-            instance = ctor.newInstance();
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException("No no-arg constructor for " + type.getName(), e);
-        }
-
-        for (var f : type.getDeclaredFields()) {
-            if (Modifier.isStatic(f.getModifiers())) continue;
-            Object val = toObject(map.get(f.getName()), f.getType());
-            try {
-                f.setAccessible(true);
-                f.set(instance, val);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
-        }
-        return instance;
+        return (T) codecs.plan(type).decode(raw);
     }
 
     private Object pojoToMap(Object obj) {
-        Map<String, Object> out = new LinkedHashMap<>();
-        for (var f : obj.getClass().getDeclaredFields()) {
-            if (Modifier.isStatic(f.getModifiers())) continue;
-            try {
-                f.setAccessible(true);
-                out.put(f.getName(), toTree(f.get(obj)));
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            }
+        return propertiesToMap(ClassCodec.of(obj.getClass()), obj);
+    }
+
+    private Map<String, Object> propertiesToMap(ClassCodec codec, Object obj) {
+        List<ClassCodec.Property> props = codec.properties();
+        Map<String, Object> out = new LinkedHashMap<>(TypeCodecs.mapCapacity(props.size()));
+        for (var prop : props) {
+            out.put(prop.name(), toTree(prop.get(obj)));
         }
         return out;
     }
@@ -226,7 +187,7 @@ public final class ReflectMapper {
         if (raw == null) return Map.of();
         if (!(raw instanceof Map<?, ?> rawMap)) throw new IllegalArgumentException("Expected map");
 
-        Map<K, V> out = new LinkedHashMap<>();
+        Map<K, V> out = new LinkedHashMap<>(TypeCodecs.mapCapacity(rawMap.size()));
         for (var e : rawMap.entrySet()) {
             K k = toObject(e.getKey(), keyType);
             V v = toObject(e.getValue(), valType);
@@ -0,0 +1,266 @@
+package xyz.femdev.femutils.java.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Engine decorator that keeps a compact binary image of each decoded config next to its source file.
+ * <p>
+ * After a successful load the decoded value is written as a binary tree to a hidden
+ * {@code .<file>.bin} sibling, keyed by the source's size, modification time and content hash.
+ * The next load decodes that image directly and only parses the source (through the wrapped
+ * engine) when it changed. Works with any engine, e.g. {@code SimpleYamlEngine}.
+ * </p>
+ */
+public final class SnapshotEngine implements ConfigHandle.Engine {
+
+    private static final int MAGIC = 0x46454D53; // "FEMS"
+    private static final int VERSION = 1;
+
+    private static final byte NULL = 0, TRUE = 1, FALSE = 2, BYTE = 3, SHORT = 4, INT = 5, LONG = 6,
+            FLOAT = 7, DOUBLE = 8, CHAR = 9, STRING = 10, LIST = 11, MAP = 12;
+
+    private final ConfigHandle.Engine delegate;
+    private final ReflectMapper mapper;
+
+    /**
+     * @param delegate the engine that reads and writes the source files
+     * @param registry type registry for custom serializers, same as the delegate's
+     */
+    public SnapshotEngine(ConfigHandle.Engine delegate, TypeRegistry registry) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.mapper = new ReflectMapper(Objects.requireNonNull(registry, "registry"));
+    }
+
+    @Override
+    public <T> T load(Path path, Class<T> type, Supplier<T> defaults) throws IOException {
+        FileStamp stamp = FileStamp.read(path);
+        if (stamp != null) {
+            Snapshot snap = readSnapshot(path, type, stamp);
+            if (snap != null) {
+                T value = mapper.toObject(snap.tree(), type);
+                // touched but unchanged source: re-key the image so the next load skips the hash
+                if (snap.modified() != stamp.modified()) writeSnapshot(path, value);
+                return value;
+            }
+        }
+        T value = delegate.load(path, type, defaults);
+        writeSnapshot(path, value);
+        return value;
+    }
+
+    @Override
+    public void save(Path path, Object value) throws IOException {
+        delegate.save(path, value);
+        writeSnapshot(path, value);
+    }
+
+    @Override
+    public Object readTree(Path path) throws IOException {
+        return delegate.readTree(path);
+    }
+
+    @Override
+    public Object decode(Object tree, Type type) {
+        return delegate.decode(tree, type);
+    }
+
+    /**
+     * @return the location of the binary image for a source file
+     */
+    public static Path snapshotPath(Path path) {
+        return path.resolveSibling("." + path.getFileName() + ".bin");
+    }
+
+    private Snapshot readSnapshot(Path path, Class<?> type, FileStamp stamp) {
+        Path snap = snapshotPath(path);
+        // read fully, so every length in the image can be checked against the bytes that are left
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(snap)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            long size = in.readLong();
+            long modified = in.readLong();
+            long hash = in.readLong();
+            if (!in.readUTF().equals(type.getName()) || size != stamp.size()) return null;
+            if (modified != stamp.modified() && hash != hash(path)) return null;
+            return new Snapshot(modified, readTree(in));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // corrupt or unreadable image, fall back to the source
+            return null;
+        }
+    }
+
+    private void writeSnapshot(Path path, Object value) {
+        Path snap = snapshotPath(path);
+        try {
+            FileStamp stamp = FileStamp.read(path);
+            if (stamp == null || value == null) {
+                Files.deleteIfExists(snap);
+                return;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(256, (int) Math.min(stamp.size(), 1 << 20)));
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(stamp.size());
+            out.writeLong(stamp.modified());
+            out.writeLong(hash(path));
+            out.writeUTF(value.getClass().getName());
+            writeTree(out, mapper.toTree(value));
+            out.flush();
+            AtomicFiles.write(snap, bytes.toByteArray());
+        } catch (IOException | RuntimeException e) {
+            // the snapshot is only a cache; make sure a stale one is not used next time
+            try {
+                Files.deleteIfExists(snap);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static long hash(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buf = new byte[8192];
+        try (InputStream in = Files.newInputStream(path)) {
+            int n;
+            while ((n = in.read(buf)) > 0) crc.update(buf, 0, n);
+        }
+        return crc.getValue();
+    }
+
+    private static void writeTree(DataOutputStream out, Object node) throws IOException {
+        if (node == null) {
+            out.writeByte(NULL);
+        } else if (node instanceof Boolean b) {
+            out.writeByte(b ? TRUE : FALSE);
+        } else if (node instanceof String s) {
+            out.writeByte(STRING);
+            writeString(out, s);
+        } else if (node instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if (node instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (node instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if (node instanceof Float f) {
+            out.writeByte(FLOAT);
+            out.writeFloat(f);
+        } else if (node instanceof Short s) {
+            out.writeByte(SHORT);
+            out.writeShort(s);
+        } else if (node instanceof Byte b) {
+            out.writeByte(BYTE);
+            out.writeByte(b);
+        } else if (node instanceof Character c) {
+            out.writeByte(CHAR);
+            out.writeChar(c);
+        } else if (node instanceof Collection<?> list) {
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object o : list) writeTree(out, o);
+        } else if (node instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (var e : map.entrySet()) {
+                writeTree(out, e.getKey());
+                writeTree(out, e.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException("Cannot snapshot " + node.getClass().getName());
+        }
+    }
+
+    private static Object readTree(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case BYTE:
+                return in.readByte();
+            case SHORT:
+                return in.readShort();
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case CHAR:
+                return in.readChar();
+            case STRING:
+                return readString(in);
+            case LIST: {
+                // every element is at least a tag byte
+                int n = count(in, 1);
+                List<Object> list = new ArrayList<>();
+                for (int i = 0; i < n; i++) list.add(readTree(in));
+                return list;
+            }
+            case MAP: {
+                // every entry is at least a key tag and a value tag
+                int n = count(in, 2);
+                Map<Object, Object> map = new LinkedHashMap<>(TypeCodecs.mapCapacity(n));
+                for (int i = 0; i < n; i++) {
+                    Object key = readTree(in);
+                    map.put(key, readTree(in));
+                }
+                return map;
+            }
+            default:
+                throw new IOException("Unknown snapshot tag " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[count(in, 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a count or length and checks that the rest of the image can hold it.
+     *
+     * @param minBytes smallest encoded size of one counted item
+     */
+    private static int count(DataInputStream in, int minBytes) throws IOException {
+        int n = in.readInt();
+        if (n < 0 || n > in.available() / minBytes) throw new IOException("Corrupt snapshot, bad length " + n);
+        return n;
+    }
+
+    private record Snapshot(long modified, Object tree) {
+    }
+}
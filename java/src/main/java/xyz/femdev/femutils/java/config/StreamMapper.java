@@ -0,0 +1,367 @@
+package xyz.femdev.femutils.java.config;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Decodes objects directly from a {@link ConfigReader} and encodes them to a {@link ConfigWriter}.
+ * <p>
+ * Follows the same record/POJO/{@link TypeRegistry} rules as {@link ReflectMapper}, but without
+ * materializing the whole document as a map tree. Only values handled by a {@link TypeSerializer}
+ * are read as a (small) tree, since serializers work on raw trees. Records are always streamed;
+ * their {@link GeneratedCodec}, if any, only supplies comment metadata when writing.
+ * </p>
+ */
+public final class StreamMapper {
+
+    private final TypeRegistry registry;
+    private final ReflectMapper mapper;
+
+    /**
+     * @param registry the type registry for custom serializers
+     */
+    public StreamMapper(TypeRegistry registry) {
+        this.registry = registry;
+        this.mapper = new ReflectMapper(registry);
+    }
+
+    /**
+     * @return the tree mapper handed to {@link TypeSerializer}s
+     */
+    public ReflectMapper treeMapper() {
+        return mapper;
+    }
+
+    /**
+     * Reads the next value as the given type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T read(ConfigReader in, Class<T> type) throws IOException {
+        return (T) read(in, (Type) type);
+    }
+
+    /**
+     * Reads the next value as the given (possibly parameterized) type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object read(ConfigReader in, Type type) throws IOException {
+        Class<?> raw = Types.rawType(type);
+        if (in.peek() == ConfigReader.Token.NULL) {
+            in.nextNull();
+            return absent(type);
+        }
+        if (raw.isPrimitive() || isBoxed(raw)) return readPrimitive(in, raw);
+        if (raw == String.class) return in.nextString();
+        if (raw == Object.class) return in.readTree();
+
+        TypeSerializer ser = registry.find(raw);
+        if (ser != null && !(ser instanceof GeneratedCodec)) return ser.deserialize(in.readTree(), mapper, raw);
+
+        if (raw.isEnum()) return mapper.toObject(in.nextString(), raw);
+        if (raw.isArray() && raw.getComponentType().isPrimitive()) return readPrimitiveArray(in, raw.getComponentType());
+        if (TypeCodecs.handles(raw)) return readCollection(in, type);
+        if (List.class.isAssignableFrom(raw)) return readList(in, Types.typeArgument(type, 0));
+        if (Map.class.isAssignableFrom(raw)) {
+            return readMap(in, Types.rawType(Types.typeArgument(type, 0)), Types.typeArgument(type, 1));
+        }
+        if (raw.isRecord()) return readRecord(in, raw);
+        if (raw.isInterface() || Modifier.isAbstract(raw.getModifiers())) {
+            return mapper.toObject(in.readTree(), raw);
+        }
+        return readPojo(in, raw);
+    }
+
+    /**
+     * Writes a value, including {@link Comment}s on record components and fields.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void write(ConfigWriter out, Object value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        Class<?> type = value.getClass();
+        TypeSerializer<?> ser = registry.find(type);
+        if (ser instanceof GeneratedCodec codec) {
+            List<GeneratedCodec.Property> props = codec.properties();
+            out.beginObject();
+            for (int i = 0; i < props.size(); i++) {
+                Object v = codec.get(value, i);
+                if (v == null) continue;
+                GeneratedCodec.Property prop = props.get(i);
+                if (prop.comment() != null) out.comment(prop.comment());
+                out.name(prop.name());
+                write(out, v);
+            }
+            out.endObject();
+        } else if (ser != null) {
+            out.writeTree(mapper.toTree(value));
+        } else if (value instanceof String s) {
+            out.value(s);
+        } else if (value instanceof Boolean b) {
+            out.value(b.booleanValue());
+        } else if (value instanceof Number n) {
+            out.value(n);
+        } else if (value instanceof Character c) {
+            out.value(c.toString());
+        } else if (value instanceof Enum<?> e) {
+            out.value(e.name());
+        } else if (value instanceof Collection<?> c) {
+            out.beginArray();
+            for (Object o : c) write(out, o);
+            out.endArray();
+        } else if (type.isArray()) {
+            writeArray(out, value);
+        } else if (value instanceof Map<?, ?> m) {
+            out.beginObject();
+            for (var e : m.entrySet()) {
+                out.name(e.getKey() instanceof Enum<?> k ? k.name() : String.valueOf(e.getKey()));
+                write(out, e.getValue());
+            }
+            out.endObject();
+        } else {
+            ClassCodec codec = ClassCodec.of(type);
+            out.beginObject();
+            for (var prop : codec.properties()) {
+                Object v = prop.get(value);
+                if (v == null) continue;
+                if (prop.comment() != null) out.comment(prop.comment());
+                out.name(prop.name());
+                write(out, v);
+            }
+            out.endObject();
+        }
+    }
+
+    private void writeArray(ConfigWriter out, Object array) throws IOException {
+        out.beginArray();
+        switch (array) {
+            case int[] a -> {
+                for (int v : a) out.value(v);
+            }
+            case long[] a -> {
+                for (long v : a) out.value(v);
+            }
+            case double[] a -> {
+                for (double v : a) out.value(v);
+            }
+            case float[] a -> {
+                for (float v : a) out.value(v);
+            }
+            case short[] a -> {
+                for (short v : a) out.value(v);
+            }
+            case byte[] a -> {
+                for (byte v : a) out.value(v);
+            }
+            case boolean[] a -> {
+                for (boolean v : a) out.value(v);
+            }
+            case char[] a -> {
+                for (char v : a) out.value(String.valueOf(v));
+            }
+            default -> {
+                for (Object o : (Object[]) array) write(out, o);
+            }
+        }
+        out.endArray();
+    }
+
+    private Object readPrimitive(ConfigReader in, Class<?> type) throws IOException {
+        if (type == boolean.class || type == Boolean.class) return in.nextBoolean();
+        if (type == int.class || type == Integer.class) return (int) in.nextLong();
+        if (type == long.class || type == Long.class) return in.nextLong();
+        if (type == double.class || type == Double.class) return in.nextDouble();
+        if (type == float.class || type == Float.class) return (float) in.nextDouble();
+        if (type == short.class || type == Short.class) return (short) in.nextLong();
+        if (type == byte.class || type == Byte.class) return (byte) in.nextLong();
+        String s = in.nextString();
+        return s.isEmpty() ? '\0' : s.charAt(0);
+    }
+
+    private List<Object> readList(ConfigReader in, Type elementType) throws IOException {
+        in.beginArray();
+        List<Object> out = new ArrayList<>();
+        while (in.hasNext()) out.add(read(in, elementType));
+        in.endArray();
+        return out;
+    }
+
+    /**
+     * Reads an array of scalars straight into primitive storage.
+     */
+    private Object readPrimitiveArray(ConfigReader in, Class<?> component) throws IOException {
+        in.beginArray();
+        Object out;
+        int n = 0;
+        if (component == int.class) {
+            int[] a = new int[8];
+            while (in.hasNext()) {
+                if (n == a.length) a = Arrays.copyOf(a, n * 2);
+                a[n++] = (int) in.nextLong();
+            }
+            out = Arrays.copyOf(a, n);
+        } else if (component == long.class) {
+            long[] a = new long[8];
+            while (in.hasNext()) {
+                if (n == a.length) a = Arrays.copyOf(a, n * 2);
+                a[n++] = in.nextLong();
+            }
+            out = Arrays.copyOf(a, n);
+        } else if (component == double.class) {
+            double[] a = new double[8];
+            while (in.hasNext()) {
+                if (n == a.length) a = Arrays.copyOf(a, n * 2);
+                a[n++] = in.nextDouble();
+            }
+            out = Arrays.copyOf(a, n);
+        } else if (component == float.class) {
+            float[] a = new float[8];
+            while (in.hasNext()) {
+                if (n == a.length) a = Arrays.copyOf(a, n * 2);
+                a[n++] = (float) in.nextDouble();
+            }
+            out = Arrays.copyOf(a, n);
+        } else {
+            // rarely used in configs; go through the boxed path
+            List<Object> list = new ArrayList<>();
+            while (in.hasNext()) list.add(readPrimitive(in, component));
+            in.endArray();
+            return mapper.toObject(list, Array.newInstance(component, 0).getClass());
+        }
+        in.endArray();
+        return out;
+    }
+
+    /**
+     * Reads sets, enum maps and object arrays, with elements streamed to their declared type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readCollection(ConfigReader in, Type type) throws IOException {
+        Class<?> raw = Types.rawType(type);
+        if (raw.isArray()) {
+            List<Object> list = readList(in, Types.componentType(type));
+            return list.toArray((Object[]) Array.newInstance(raw.getComponentType(), list.size()));
+        }
+        if (raw == EnumMap.class) {
+            EnumMap out = new EnumMap(enumArgument(type));
+            out.putAll(readMap(in, enumArgument(type), Types.typeArgument(type, 1)));
+            return out;
+        }
+        Type elementType = Types.typeArgument(type, 0);
+        Collection<Object> out = EnumSet.class.isAssignableFrom(raw)
+                ? (Collection) EnumSet.noneOf(enumArgument(type))
+                : SortedSet.class.isAssignableFrom(raw) ? new TreeSet<>() : new LinkedHashSet<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            Object v = read(in, elementType);
+            if (v != null || !(out instanceof EnumSet)) out.add(v);
+        }
+        in.endArray();
+        return out;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Class<Enum> enumArgument(Type type) {
+        Class<?> arg = Types.rawType(Types.typeArgument(type, 0));
+        if (!arg.isEnum()) throw new IllegalArgumentException(type.getTypeName() + " needs an enum type argument");
+        return (Class<Enum>) arg;
+    }
+
+    private Map<Object, Object> readMap(ConfigReader in, Class<?> keyType, Type valueType) throws IOException {
+        in.beginObject();
+        Map<Object, Object> out = new LinkedHashMap<>();
+        while (in.hasNext()) {
+            Object key = TypeCodecs.key(in.nextName(), keyType, mapper);
+            out.put(key, read(in, valueType));
+        }
+        in.endObject();
+        return out;
+    }
+
+    private Object readRecord(ConfigReader in, Class<?> type) throws IOException {
+        if (in.peek() != ConfigReader.Token.BEGIN_OBJECT)
+            throw new IllegalArgumentException("Expected map for " + type.getName());
+
+        ClassCodec codec = ClassCodec.of(type);
+        List<ClassCodec.Property> props = codec.properties();
+        Object[] args = new Object[props.size()];
+        boolean[] seen = new boolean[args.length];
+        in.beginObject();
+        while (in.hasNext()) {
+            ClassCodec.Property prop = codec.property(in.nextName());
+            if (prop == null) {
+                in.skipValue();
+                continue;
+            }
+            args[prop.index()] = read(in, prop.genericType());
+            seen[prop.index()] = true;
+        }
+        in.endObject();
+        for (int i = 0; i < args.length; i++) {
+            if (!seen[i]) args[i] = absent(props.get(i).genericType());
+        }
+        return codec.newInstance(args);
+    }
+
+    private Object readPojo(ConfigReader in, Class<?> type) throws IOException {
+        if (in.peek() != ConfigReader.Token.BEGIN_OBJECT)
+            throw new IllegalArgumentException("Expected map for " + type.getName());
+
+        ClassCodec codec = ClassCodec.of(type);
+        Object instance = codec.newInstance(null);
+        boolean[] seen = new boolean[codec.properties().size()];
+        in.beginObject();
+        while (in.hasNext()) {
+            ClassCodec.Property prop = codec.property(in.nextName());
+            if (prop == null) {
+                in.skipValue();
+                continue;
+            }
+            prop.set(instance, read(in, prop.genericType()));
+            seen[prop.index()] = true;
+        }
+        in.endObject();
+        for (var prop : codec.properties()) {
+            if (!seen[prop.index()]) prop.set(instance, absent(prop.genericType()));
+        }
+        return instance;
+    }
+
+    /**
+     * Value used for a missing or null entry, matching {@link ReflectMapper}.
+     */
+    private Object absent(Type type) {
+        Class<?> raw = Types.rawType(type);
+        if (raw.isPrimitive()) return mapper.toObject(null, raw);
+        if (raw.isArray() || raw.isEnum()) return null;
+        if (TypeCodecs.handles(raw)) return mapper.toObject(null, type);
+        if (List.class.isAssignableFrom(raw)) return List.of();
+        if (Map.class.isAssignableFrom(raw)) return Map.of();
+        return null;
+    }
+
+    private static boolean isBoxed(Class<?> type) {
+        return type == Boolean.class
+                || type == Byte.class
+                || type == Short.class
+                || type == Integer.class
+                || type == Long.class
+                || type == Float.class
+                || type == Double.class
+                || type == Character.class;
+    }
+}
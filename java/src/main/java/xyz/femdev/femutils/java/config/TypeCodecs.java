@@ -0,0 +1,389 @@
+package xyz.femdev.femutils.java.config;
+
+import xyz.femdev.femutils.java.core.NameIndex;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-{@link Type} decoders compiled from the full generic type tree, owned by a {@link ReflectMapper}.
+ * <p>
+ * A {@code Map<String, List<Reward>>} compiles once into a map decoder wrapping a list decoder
+ * wrapping the {@code Reward} record plan, so every level is decoded to its declared type in one pass
+ * into presized containers. Compiled decoders are dropped when a serializer is registered.
+ * </p>
+ * <p>
+ * Enums, sets, enum maps and arrays are always decoded here: enums through a {@link NameIndex}
+ * built once per enum, and primitive arrays straight into primitive storage.
+ * </p>
+ */
+final class TypeCodecs {
+
+    /**
+     * Decodes a raw tree node into a typed value.
+     */
+    interface Decoder {
+        Object decode(Object raw);
+    }
+
+    private final ReflectMapper mapper;
+    private final TypeRegistry registry;
+    private volatile Cache cache;
+
+    TypeCodecs(ReflectMapper mapper, TypeRegistry registry) {
+        this.mapper = mapper;
+        this.registry = registry;
+        this.cache = new Cache(registry.version());
+    }
+
+    /**
+     * @return the decoder for the given type, compiling it on first use
+     */
+    Decoder decoder(Type type) {
+        Cache c = cache();
+        Decoder d = c.decoders.get(type);
+        if (d == null) {
+            d = compile(type);
+            Decoder prev = c.decoders.putIfAbsent(type, d);
+            if (prev != null) d = prev;
+        }
+        return d;
+    }
+
+    /**
+     * @return the decoder for a record or POJO class, applying each property's generic type
+     */
+    Decoder plan(Class<?> type) {
+        Cache c = cache();
+        Decoder d = c.plans.get(type);
+        if (d == null) {
+            ClassCodec codec = ClassCodec.of(type);
+            d = codec.isRecord() ? new RecordDecoder(codec) : new PojoDecoder(codec);
+            Decoder prev = c.plans.putIfAbsent(type, d);
+            if (prev != null) d = prev;
+        }
+        return d;
+    }
+
+    /**
+     * @return {@code true} if raw classes of this kind must go through {@link #decoder}
+     */
+    static boolean handles(Class<?> type) {
+        return type.isEnum() || type.isArray() || Set.class.isAssignableFrom(type) || type == EnumMap.class;
+    }
+
+    private Cache cache() {
+        Cache c = cache;
+        Object version = registry.version();
+        if (c.version != version) {
+            c = new Cache(version);
+            cache = c;
+        }
+        return c;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Decoder compile(Type type) {
+        Class<?> raw = Types.rawType(type);
+        if (registry.find(raw) == null && handles(raw)) {
+            if (raw.isEnum()) return new EnumDecoder(raw, NameIndex.ofEnum((Class) raw));
+            if (raw.isArray()) {
+                Class<?> component = raw.getComponentType();
+                return component.isPrimitive()
+                        ? new PrimitiveArrayDecoder(component)
+                        : new ArrayDecoder(component, decoder(Types.componentType(type)));
+            }
+            if (EnumSet.class.isAssignableFrom(raw)) {
+                return new EnumSetDecoder(enumArgument(type, 0), decoder(Types.typeArgument(type, 0)));
+            }
+            if (raw == EnumMap.class) {
+                return new EnumMapDecoder(enumArgument(type, 0), decoder(Types.typeArgument(type, 0)),
+                        decoder(Types.typeArgument(type, 1)));
+            }
+            return new SetDecoder(SortedSet.class.isAssignableFrom(raw), decoder(Types.typeArgument(type, 0)));
+        }
+        if (type instanceof Class<?> c) return value -> mapper.toObject(value, c);
+
+        if (type instanceof ParameterizedType && registry.find(raw) == null) {
+            if (List.class.isAssignableFrom(raw)) {
+                return new ListDecoder(decoder(Types.typeArgument(type, 0)));
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                return new MapDecoder(Types.rawType(Types.typeArgument(type, 0)), decoder(Types.typeArgument(type, 1)));
+            }
+        }
+        return decoder(raw);
+    }
+
+    /**
+     * Converts a map key, which YAML and JSON usually hand over as a string.
+     * Shared with {@link StreamMapper}, so both paths accept the same key types.
+     */
+    static Object key(Object raw, Class<?> keyType, ReflectMapper mapper) {
+        if (raw instanceof String s) {
+            if (keyType == Integer.class) return Integer.valueOf(s);
+            if (keyType == Long.class) return Long.valueOf(s);
+            if (keyType == Short.class) return Short.valueOf(s);
+            if (keyType == Byte.class) return Byte.valueOf(s);
+        } else if (raw != null && keyType == String.class) {
+            return raw.toString();
+        }
+        return mapper.toObject(raw, keyType);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Class<Enum> enumArgument(Type type, int index) {
+        Class<?> arg = Types.rawType(Types.typeArgument(type, index));
+        if (!arg.isEnum()) throw new IllegalArgumentException(type.getTypeName() + " needs an enum type argument");
+        return (Class<Enum>) arg;
+    }
+
+    static int mapCapacity(int size) {
+        return Math.max(16, size * 4 / 3 + 1);
+    }
+
+    private static Map<?, ?> expectMap(Object raw, Class<?> type) {
+        if (!(raw instanceof Map<?, ?> map))
+            throw new IllegalArgumentException("Expected map for " + type.getName());
+        return map;
+    }
+
+    private static List<?> expectList(Object raw) {
+        if (!(raw instanceof List<?> list)) throw new IllegalArgumentException("Expected list");
+        return list;
+    }
+
+    private static Number number(Object raw) {
+        if (raw instanceof Number n) return n;
+        if (raw == null) return 0;
+        throw new IllegalArgumentException("Expected number, got '" + raw + "'");
+    }
+
+    private record ListDecoder(Decoder element) implements Decoder {
+        @Override
+        public Object decode(Object raw) {
+            if (raw == null) return List.of();
+            List<?> rawList = expectList(raw);
+            List<Object> out = new ArrayList<>(rawList.size());
+            for (Object o : rawList) out.add(element.decode(o));
+            return out;
+        }
+    }
+
+    /**
+     * Looks constants up by name, case-insensitively; a single value is also accepted as-is.
+     */
+    private record EnumDecoder(Class<?> type, NameIndex<?> index) implements Decoder {
+        @Override
+        public Object decode(Object raw) {
+            if (raw == null || type.isInstance(raw)) return raw;
+            Object value = index.get(raw instanceof CharSequence cs ? cs : raw.toString());
+            if (value == null) throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " '" + raw + "'");
+            return value;
+        }
+    }
+
+    private record SetDecoder(boolean sorted, Decoder element) implements Decoder {
+        @Override
+        public Object decode(Object raw) {
+            if (raw == null) return sorted ? new TreeSet<>() : Set.of();
+            List<?> rawList = expectList(raw);
+            Set<Object> out = sorted ? new TreeSet<>() : new LinkedHashSet<>(mapCapacity(rawList.size()));
+            for (Object o : rawList) out.add(element.decode(o));
+            return out;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private record EnumSetDecoder(Class<Enum> type, Decoder element) implements Decoder {
+        @Override
+        public Object decode(Object raw) {
+            EnumSet out = EnumSet.noneOf(type);
+            if (raw == null) return out;
+            for (Object o : expectList(raw)) {
+                Object v = element.decode(o);
+                if (v != null) out.add(v);
+            }
+            return out;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private record EnumMapDecoder(Class<Enum> type, Decoder key, Decoder value) implements Decoder {
+        @Override
+        public Object decode(Object raw) {
+            EnumMap out = new EnumMap(type);
+            if (raw == null) return out;
+            if (!(raw instanceof Map<?, ?> rawMap)) throw new IllegalArgumentException("Expected map");
+            for (var e : rawMap.entrySet()) {
+                out.put(key.decode(e.getKey()), value.decode(e.getValue()));
+            }
+            return out;
+        }
+    }
+
+    private record ArrayDecoder(Class<?> component, Decoder element) implements Decoder {
+        @Override
+        public Object decode(Object raw) {
+            if (raw == null) return null;
+            List<?> rawList = expectList(raw);
+            Object[] out = (Object[]) Array.newInstance(component, rawList.size());
+            for (int i = 0; i < out.length; i++) out[i] = element.decode(rawList.get(i));
+            return out;
+        }
+    }
+
+    /**
+     * Decodes into {@code int[]}, {@code double[]} and the like without boxed intermediates.
+     */
+    private record PrimitiveArrayDecoder(Class<?> component) implements Decoder {
+        @Override
+        public Object decode(Object raw) {
+            if (raw == null) return null;
+            List<?> list = expectList(raw);
+            int n = list.size();
+            if (component == int.class) {
+                int[] out = new int[n];
+                for (int i = 0; i < n; i++) out[i] = number(list.get(i)).intValue();
+                return out;
+            }
+            if (component == long.class) {
+                long[] out = new long[n];
+                for (int i = 0; i < n; i++) out[i] = number(list.get(i)).longValue();
+                return out;
+            }
+            if (component == double.class) {
+                double[] out = new double[n];
+                for (int i = 0; i < n; i++) out[i] = number(list.get(i)).doubleValue();
+                return out;
+            }
+            if (component == float.class) {
+                float[] out = new float[n];
+                for (int i = 0; i < n; i++) out[i] = number(list.get(i)).floatValue();
+                return out;
+            }
+            if (component == short.class) {
+                short[] out = new short[n];
+                for (int i = 0; i < n; i++) out[i] = number(list.get(i)).shortValue();
+                return out;
+            }
+            if (component == byte.class) {
+                byte[] out = new byte[n];
+                for (int i = 0; i < n; i++) out[i] = number(list.get(i)).byteValue();
+                return out;
+            }
+            if (component == boolean.class) {
+                boolean[] out = new boolean[n];
+                for (int i = 0; i < n; i++) {
+                    Object o = list.get(i);
+                    out[i] = o instanceof Boolean b ? b : Boolean.parseBoolean(String.valueOf(o));
+                }
+                return out;
+            }
+            char[] out = new char[n];
+            for (int i = 0; i < n; i++) {
+                Object o = list.get(i);
+                out[i] = o instanceof Character c ? c : o instanceof String s && !s.isEmpty() ? s.charAt(0) : '\0';
+            }
+            return out;
+        }
+    }
+
+    private final class MapDecoder implements Decoder {
+        private final Class<?> keyType;
+        private final Decoder value;
+
+        MapDecoder(Class<?> keyType, Decoder value) {
+            this.keyType = keyType;
+            this.value = value;
+        }
+
+        @Override
+        public Object decode(Object raw) {
+            if (raw == null) return Map.of();
+            if (!(raw instanceof Map<?, ?> rawMap)) throw new IllegalArgumentException("Expected map");
+            Map<Object, Object> out = new LinkedHashMap<>(mapCapacity(rawMap.size()));
+            for (var e : rawMap.entrySet()) {
+                out.put(key(e.getKey(), keyType, mapper), value.decode(e.getValue()));
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Base for record and POJO plans. Property decoders are resolved on first use,
+     * which also keeps self-referencing types from compiling forever.
+     */
+    private abstract class ObjectDecoder implements Decoder {
+        final ClassCodec codec;
+        final List<ClassCodec.Property> props;
+        private final Decoder[] decoders;
+
+        ObjectDecoder(ClassCodec codec) {
+            this.codec = codec;
+            this.props = codec.properties();
+            this.decoders = new Decoder[props.size()];
+        }
+
+        final Object decodeProperty(int i, Object raw) {
+            Decoder d = decoders[i];
+            if (d == null) decoders[i] = d = decoder(props.get(i).genericType());
+            return d.decode(raw);
+        }
+    }
+
+    private final class RecordDecoder extends ObjectDecoder {
+        RecordDecoder(ClassCodec codec) {
+            super(codec);
+        }
+
+        @Override
+        public Object decode(Object raw) {
+            Map<?, ?> map = expectMap(raw, codec.type());
+            Object[] args = new Object[props.size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = decodeProperty(i, map.get(props.get(i).name()));
+            }
+            return codec.newInstance(args);
+        }
+    }
+
+    private final class PojoDecoder extends ObjectDecoder {
+        PojoDecoder(ClassCodec codec) {
+            super(codec);
+        }
+
+        @Override
+        public Object decode(Object raw) {
+            Map<?, ?> map = expectMap(raw, codec.type());
+            Object instance = codec.newInstance(null);
+            for (int i = 0; i < props.size(); i++) {
+                var prop = props.get(i);
+                prop.set(instance, decodeProperty(i, map.get(prop.name())));
+            }
+            return instance;
+        }
+    }
+
+    private static final class Cache {
+        final Object version;
+        final Map<Type, Decoder> decoders = new ConcurrentHashMap<>();
+        final Map<Class<?>, Decoder> plans = new ConcurrentHashMap<>();
+
+        Cache(Object version) {
+            this.version = version;
+        }
+    }
+}
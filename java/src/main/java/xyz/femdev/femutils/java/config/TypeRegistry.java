@@ -2,18 +2,34 @@ package xyz.femdev.femutils.java.config;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Registry for type-specific serializers used by a config engine.
+ * <p>
+ * Lookups are memoized per type, including types that have no serializer, so repeated
+ * lookups are a single hash probe. Safe for concurrent readers; registering a serializer
+ * invalidates the memoized results.
+ * </p>
+ * <p>
+ * Records without a registered serializer fall back to the {@link GeneratedCodec} generated for
+ * them at compile time, if any.
+ * </p>
  */
 public final class TypeRegistry {
+    // marks a type that was resolved to no serializer
+    private static final Object NONE = new Object();
+
     private final Map<Class<?>, TypeSerializer<?>> exact = new LinkedHashMap<>();
+    private volatile Resolution resolution = new Resolution(Map.of());
 
     /**
      * Registers a serializer for the given type.
      */
-    public <T> void register(Class<T> type, TypeSerializer<T> ser) {
+    public synchronized <T> void register(Class<T> type, TypeSerializer<T> ser) {
         exact.put(type, ser);
+        resolution = new Resolution(new LinkedHashMap<>(exact));
     }
 
     /**
@@ -22,14 +38,45 @@ public final class TypeRegistry {
      */
     @SuppressWarnings("unchecked")
     public <T> TypeSerializer<T> find(Class<T> type) {
-        TypeSerializer<?> ser = exact.get(type);
-        if (ser != null) return (TypeSerializer<T>) ser;
+        Resolution res = resolution;
+        Object cached = res.resolved.get(type);
+        if (cached == null) {
+            TypeSerializer<?> ser = res.scan(type);
+            cached = ser != null ? ser : NONE;
+            res.resolved.put(type, cached);
+        }
+        return cached == NONE ? null : (TypeSerializer<T>) cached;
+    }
+
+    /**
+     * @return a token that changes whenever a serializer is registered
+     */
+    Object version() {
+        return resolution;
+    }
+
+    /**
+     * Immutable snapshot of the registered serializers plus the lookups resolved against it.
+     * Replaced wholesale on registration, so a stale result can never leak into a newer snapshot.
+     */
+    private static final class Resolution {
+        private final Map<Class<?>, TypeSerializer<?>> serializers;
+        private final ConcurrentMap<Class<?>, Object> resolved = new ConcurrentHashMap<>();
+
+        private Resolution(Map<Class<?>, TypeSerializer<?>> serializers) {
+            this.serializers = serializers;
+        }
+
+        private TypeSerializer<?> scan(Class<?> type) {
+            TypeSerializer<?> ser = serializers.get(type);
+            if (ser != null) return ser;
 
-        for (Map.Entry<Class<?>, TypeSerializer<?>> e : exact.entrySet()) {
-            if (e.getKey().isAssignableFrom(type)) {
-                return (TypeSerializer<T>) e.getValue();
+            for (Map.Entry<Class<?>, TypeSerializer<?>> e : serializers.entrySet()) {
+                if (e.getKey().isAssignableFrom(type)) {
+                    return e.getValue();
+                }
             }
+            return GeneratedCodecs.find(type);
         }
-        return null;
     }
 }
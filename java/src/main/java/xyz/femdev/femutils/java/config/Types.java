@@ -0,0 +1,109 @@
+package xyz.femdev.femutils.java.config;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Helpers for working with {@link java.lang.reflect.Type}s.
+ */
+public final class Types {
+
+    private Types() {
+    }
+
+    /**
+     * @return the erased class of the given type
+     */
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class<?> c) return c;
+        if (type instanceof ParameterizedType pt) return (Class<?>) pt.getRawType();
+        if (type instanceof GenericArrayType at) return Array.newInstance(rawType(at.getGenericComponentType()), 0).getClass();
+        if (type instanceof WildcardType wt) return rawType(wt.getUpperBounds()[0]);
+        if (type instanceof TypeVariable<?> tv) return rawType(tv.getBounds()[0]);
+        return Object.class;
+    }
+
+    /**
+     * @return the type argument at {@code index}, or {@code Object} if the type is not parameterized
+     */
+    static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType pt) {
+            Type[] args = pt.getActualTypeArguments();
+            if (index < args.length) {
+                Type arg = args[index];
+                return arg instanceof WildcardType wt ? wt.getUpperBounds()[0] : arg;
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * @return the element type of an array type, or {@code Object} if the type is not an array
+     */
+    static Type componentType(Type type) {
+        if (type instanceof GenericArrayType at) return at.getGenericComponentType();
+        if (type instanceof Class<?> c && c.isArray()) return c.getComponentType();
+        return Object.class;
+    }
+
+    /**
+     * Creates a parameterized type such as {@code List<Reward>}, e.g. for generated codecs.
+     * Equal to the JDK's own instances, so it can be used as a cache key alongside them.
+     *
+     * @param raw  the generic class
+     * @param args the type arguments
+     */
+    public static ParameterizedType parameterized(Class<?> raw, Type... args) {
+        if (raw.getTypeParameters().length != args.length) {
+            throw new IllegalArgumentException(raw.getName() + " takes " + raw.getTypeParameters().length + " type arguments");
+        }
+        return new ParameterizedTypeImpl(raw, args.clone());
+    }
+
+    private record ParameterizedTypeImpl(Class<?> raw, Type[] args) implements ParameterizedType {
+        @Override
+        public Type[] getActualTypeArguments() {
+            return args.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return raw;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return raw.getDeclaringClass();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ParameterizedType pt
+                    && raw.equals(pt.getRawType())
+                    && Objects.equals(getOwnerType(), pt.getOwnerType())
+                    && Arrays.equals(args, pt.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            // same formula as the JDK implementation
+            return Arrays.hashCode(args) ^ Objects.hashCode(getOwnerType()) ^ raw.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(raw.getName()).append('<');
+            for (int i = 0; i < args.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(args[i].getTypeName());
+            }
+            return sb.append('>').toString();
+        }
+    }
+}
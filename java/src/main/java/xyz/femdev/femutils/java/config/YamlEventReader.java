@@ -0,0 +1,270 @@
+package xyz.femdev.femutils.java.config;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.Reader;
+import java.math.BigInteger;
+
+/**
+ * {@link ConfigReader} over SnakeYAML parse events.
+ * <p>
+ * Anchors, aliases and merge keys are not supported; they raise {@link UnsupportedYamlException}
+ * so the caller can fall back to a full node-based load.
+ * </p>
+ */
+final class YamlEventReader implements ConfigReader {
+
+    private static final Resolver RESOLVER = new Resolver();
+
+    private final Parser parser;
+
+    YamlEventReader(Reader reader) {
+        LoaderOptions options = new LoaderOptions();
+        options.setProcessComments(false);
+        this.parser = new ParserImpl(new StreamReader(reader), options);
+    }
+
+    @Override
+    public Token peek() {
+        Event ev = event();
+        return switch (ev.getEventId()) {
+            case MappingStart -> Token.BEGIN_OBJECT;
+            case MappingEnd -> Token.END_OBJECT;
+            case SequenceStart -> Token.BEGIN_ARRAY;
+            case SequenceEnd -> Token.END_ARRAY;
+            case Scalar -> isNull((ScalarEvent) ev) ? Token.NULL : Token.SCALAR;
+            case Alias -> throw new UnsupportedYamlException("Aliases are not supported: " + ev.getStartMark());
+            default -> Token.END_DOCUMENT;
+        };
+    }
+
+    @Override
+    public void beginObject() {
+        expect(Event.ID.MappingStart, "map");
+    }
+
+    @Override
+    public void endObject() {
+        expect(Event.ID.MappingEnd, "end of map");
+    }
+
+    @Override
+    public void beginArray() {
+        expect(Event.ID.SequenceStart, "list");
+    }
+
+    @Override
+    public void endArray() {
+        expect(Event.ID.SequenceEnd, "end of list");
+    }
+
+    @Override
+    public boolean hasNext() {
+        Event.ID id = event().getEventId();
+        return id != Event.ID.MappingEnd && id != Event.ID.SequenceEnd;
+    }
+
+    @Override
+    public String nextName() {
+        String name = scalar().getValue();
+        if ("<<".equals(name)) throw new UnsupportedYamlException("Merge keys are not supported");
+        return name;
+    }
+
+    @Override
+    public String nextString() {
+        return scalar().getValue();
+    }
+
+    @Override
+    public Object nextScalar() {
+        ScalarEvent ev = scalar();
+        String value = ev.getValue();
+        Tag tag = tag(ev);
+        if (Tag.NULL.equals(tag)) return null;
+        if (Tag.BOOL.equals(tag)) return parseBoolean(value);
+        if (Tag.INT.equals(tag)) {
+            Number n = parseInteger(value);
+            if (n instanceof Long l && l == l.intValue()) return l.intValue();
+            return n;
+        }
+        if (Tag.FLOAT.equals(tag)) return parseDouble(value);
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return parseBoolean(scalar().getValue());
+    }
+
+    @Override
+    public long nextLong() {
+        String value = scalar().getValue();
+        long fast = parseDecimal(value);
+        if (fast != Long.MIN_VALUE) return fast;
+        Number n = value.indexOf('.') >= 0 || value.indexOf('e') >= 0 || value.indexOf('E') >= 0
+                ? (Number) parseDouble(value)
+                : parseInteger(value);
+        return n.longValue();
+    }
+
+    @Override
+    public double nextDouble() {
+        String value = scalar().getValue();
+        long fast = parseDecimal(value);
+        return fast != Long.MIN_VALUE ? fast : parseDouble(value);
+    }
+
+    @Override
+    public void nextNull() {
+        scalar();
+    }
+
+    @Override
+    public void skipValue() {
+        int depth = 0;
+        do {
+            Event ev = parser.getEvent();
+            switch (ev.getEventId()) {
+                case MappingStart, SequenceStart -> depth++;
+                case MappingEnd, SequenceEnd -> depth--;
+                case Alias -> throw new UnsupportedYamlException("Aliases are not supported: " + ev.getStartMark());
+                default -> {
+                }
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Returns the next content event, skipping stream and document boundaries.
+     */
+    private Event event() {
+        Event ev = parser.peekEvent();
+        while (ev.getEventId() == Event.ID.StreamStart || ev.getEventId() == Event.ID.DocumentStart) {
+            parser.getEvent();
+            ev = parser.peekEvent();
+        }
+        return ev;
+    }
+
+    private void expect(Event.ID id, String what) {
+        Event ev = event();
+        if (ev.getEventId() != id) {
+            throw new IllegalArgumentException("Expected " + what + " but found " + ev.getEventId() + " " + ev.getStartMark());
+        }
+        parser.getEvent();
+    }
+
+    private ScalarEvent scalar() {
+        Event ev = event();
+        if (ev.getEventId() == Event.ID.Alias) {
+            throw new UnsupportedYamlException("Aliases are not supported: " + ev.getStartMark());
+        }
+        if (!(ev instanceof ScalarEvent scalar)) {
+            throw new IllegalArgumentException("Expected a value but found " + ev.getEventId() + " " + ev.getStartMark());
+        }
+        parser.getEvent();
+        return scalar;
+    }
+
+    private static Tag tag(ScalarEvent ev) {
+        if (ev.getTag() != null && !"!".equals(ev.getTag())) return new Tag(ev.getTag());
+        if (ev.getScalarStyle() != DumperOptions.ScalarStyle.PLAIN) return Tag.STR;
+        return RESOLVER.resolve(NodeId.scalar, ev.getValue(), true);
+    }
+
+    private static boolean isNull(ScalarEvent ev) {
+        if (ev.getTag() != null) return Tag.NULL.getValue().equals(ev.getTag());
+        if (ev.getScalarStyle() != DumperOptions.ScalarStyle.PLAIN) return false;
+        String v = ev.getValue();
+        return v.isEmpty() || v.equals("~") || v.equals("null") || v.equals("Null") || v.equals("NULL");
+    }
+
+    private static boolean parseBoolean(String value) {
+        return switch (value) {
+            case "true", "True", "TRUE", "yes", "Yes", "YES", "on", "On", "ON" -> true;
+            case "false", "False", "FALSE", "no", "No", "NO", "off", "Off", "OFF" -> false;
+            default -> throw new IllegalArgumentException("Not a boolean: " + value);
+        };
+    }
+
+    /**
+     * Parses a plain decimal integer without allocating.
+     *
+     * @return the value, or {@code Long.MIN_VALUE} if the text is not a simple decimal integer
+     */
+    private static long parseDecimal(String value) {
+        int len = value.length();
+        if (len == 0 || len > 18) return Long.MIN_VALUE;
+        int i = 0;
+        boolean negative = false;
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == len) return Long.MIN_VALUE;
+        }
+        if (value.charAt(i) == '0' && i + 1 < len) return Long.MIN_VALUE; // octal or radix prefix
+        long result = 0;
+        for (; i < len; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return Long.MIN_VALUE;
+            result = result * 10 + (c - '0');
+        }
+        return negative ? -result : result;
+    }
+
+    private static Number parseInteger(String value) {
+        String s = value.replace("_", "");
+        int sign = 1;
+        if (s.startsWith("-")) {
+            sign = -1;
+            s = s.substring(1);
+        } else if (s.startsWith("+")) {
+            s = s.substring(1);
+        }
+        int radix = 10;
+        if (s.startsWith("0x")) {
+            radix = 16;
+            s = s.substring(2);
+        } else if (s.startsWith("0b")) {
+            radix = 2;
+            s = s.substring(2);
+        } else if (s.startsWith("0") && s.length() > 1) {
+            radix = 8;
+            s = s.substring(1);
+        }
+        BigInteger big = new BigInteger(s, radix);
+        if (sign < 0) big = big.negate();
+        return big.bitLength() < Long.SIZE ? (Number) big.longValue() : big;
+    }
+
+    private static double parseDouble(String value) {
+        String s = value.replace("_", "");
+        return switch (s) {
+            case ".inf", ".Inf", ".INF", "+.inf", "+.Inf", "+.INF" -> Double.POSITIVE_INFINITY;
+            case "-.inf", "-.Inf", "-.INF" -> Double.NEGATIVE_INFINITY;
+            case ".nan", ".NaN", ".NAN" -> Double.NaN;
+            default -> Double.parseDouble(s);
+        };
+    }
+
+    /**
+     * Raised for YAML features the event reader does not handle.
+     */
+    static final class UnsupportedYamlException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedYamlException(String message) {
+            super(message);
+        }
+    }
+}
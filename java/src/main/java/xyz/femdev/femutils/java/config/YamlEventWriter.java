@@ -0,0 +1,143 @@
+package xyz.femdev.femutils.java.config;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.comments.CommentType;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * {@link ConfigWriter} that emits SnakeYAML events, including block comments.
+ */
+final class YamlEventWriter implements ConfigWriter {
+
+    private static final Resolver RESOLVER = new Resolver();
+    private static final ImplicitTuple PLAIN = new ImplicitTuple(true, false);
+
+    private final Emitter emitter;
+    private String[] pendingComment;
+    private boolean started;
+
+    YamlEventWriter(Writer writer) {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setProcessComments(true);
+        options.setSplitLines(false);
+        options.setIndent(2);
+        options.setIndicatorIndent(2);
+        options.setIndentWithIndicator(true);
+        this.emitter = new Emitter(writer, options);
+    }
+
+    @Override
+    public void header(String[] lines) throws IOException {
+        emitter.emit(new StreamStartEvent(null, null));
+        emitComment(lines);
+        emitter.emit(new CommentEvent(CommentType.BLANK_LINE, "", null, null));
+        emitter.emit(new DocumentStartEvent(null, null, false, null, null));
+        started = true;
+    }
+
+    @Override
+    public void comment(String[] lines) {
+        pendingComment = lines;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        start();
+        emitter.emit(new MappingStartEvent(null, null, true, null, null, DumperOptions.FlowStyle.BLOCK));
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        emitter.emit(new MappingEndEvent(null, null));
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        start();
+        emitter.emit(new SequenceStartEvent(null, null, true, null, null, DumperOptions.FlowStyle.BLOCK));
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        emitter.emit(new SequenceEndEvent(null, null));
+    }
+
+    @Override
+    public void name(String name) throws IOException {
+        if (pendingComment != null) {
+            emitComment(pendingComment);
+            pendingComment = null;
+        }
+        value(name);
+    }
+
+    @Override
+    public void value(String value) throws IOException {
+        start();
+        // strings that would read back as another type (numbers, booleans, null) must be quoted
+        boolean plain = Tag.STR.equals(RESOLVER.resolve(NodeId.scalar, value, true));
+        scalar(value, new ImplicitTuple(plain, true));
+    }
+
+    @Override
+    public void value(boolean value) throws IOException {
+        scalar(value ? "true" : "false", PLAIN);
+    }
+
+    @Override
+    public void value(long value) throws IOException {
+        scalar(Long.toString(value), PLAIN);
+    }
+
+    @Override
+    public void value(double value) throws IOException {
+        String text;
+        if (Double.isNaN(value)) text = ".nan";
+        else if (value == Double.POSITIVE_INFINITY) text = ".inf";
+        else if (value == Double.NEGATIVE_INFINITY) text = "-.inf";
+        else text = Double.toString(value);
+        scalar(text, PLAIN);
+    }
+
+    @Override
+    public void nullValue() throws IOException {
+        scalar("null", PLAIN);
+    }
+
+    /**
+     * Closes the document and flushes the underlying writer.
+     */
+    void finish() throws IOException {
+        start();
+        emitter.emit(new DocumentEndEvent(null, null, false));
+        emitter.emit(new StreamEndEvent(null, null));
+    }
+
+    private void scalar(String value, ImplicitTuple implicit) throws IOException {
+        start();
+        emitter.emit(new ScalarEvent(null, null, implicit, value, null, null, DumperOptions.ScalarStyle.PLAIN));
+    }
+
+    private void start() throws IOException {
+        if (started) return;
+        started = true;
+        emitter.emit(new StreamStartEvent(null, null));
+        emitter.emit(new DocumentStartEvent(null, null, false, null, null));
+    }
+
+    private void emitComment(String[] lines) throws IOException {
+        for (String line : lines) {
+            for (String part : line.split("\n", -1)) {
+                emitter.emit(new CommentEvent(CommentType.BLOCK, part.isEmpty() ? "" : " " + part, null, null));
+            }
+        }
+    }
+}
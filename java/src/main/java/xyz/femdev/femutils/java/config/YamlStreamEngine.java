@@ -0,0 +1,107 @@
+package xyz.femdev.femutils.java.config;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Platform-independent YAML engine that decodes SnakeYAML parse events straight into
+ * records and POJOs through {@link StreamMapper}, without building an intermediate map tree.
+ * <p>
+ * Unlike {@code SimpleYamlEngine} it never rewrites a file on load, and a save writes
+ * a fresh document with {@link Header} and {@link Comment} annotations only; hand-written
+ * comments are not preserved. Documents using anchors, aliases or merge keys are loaded
+ * through SnakeYAML's node-based loader instead.
+ * </p>
+ */
+public final class YamlStreamEngine implements ConfigHandle.Engine {
+
+    private final StreamMapper mapper;
+
+    /**
+     * @param registry type registry for custom serializers
+     */
+    public YamlStreamEngine(TypeRegistry registry) {
+        this.mapper = new StreamMapper(Objects.requireNonNull(registry));
+    }
+
+    @Override
+    public <T> T load(Path path, Class<T> type, Supplier<T> defaults) throws IOException {
+        if (Files.notExists(path)) {
+            T def = defaults.get();
+            save(path, def);
+            return def;
+        }
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            YamlEventReader in = new YamlEventReader(reader);
+            if (in.peek() == ConfigReader.Token.END_DOCUMENT) {
+                return mapper.treeMapper().toObject(new LinkedHashMap<>(), type);
+            }
+            return mapper.read(in, type);
+        } catch (YamlEventReader.UnsupportedYamlException e) {
+            return mapper.treeMapper().toObject(loadNodes(path), type);
+        } catch (YAMLException e) {
+            throw new IOException("Failed to load YAML " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void save(Path path, Object value) throws IOException {
+        StringWriter buffer = new StringWriter();
+        YamlEventWriter out = new YamlEventWriter(buffer);
+        String[] header = header(value.getClass());
+        if (header != null) out.header(header);
+        mapper.write(out, value);
+        out.finish();
+        AtomicFiles.writeString(path, buffer.toString());
+    }
+
+    /**
+     * @return the header lines, from the generated codec if there is one
+     */
+    private static String[] header(Class<?> type) {
+        GeneratedCodec<?> codec = GeneratedCodecs.find(type);
+        if (codec != null) return codec.header();
+        Header header = type.getAnnotation(Header.class);
+        return header != null ? header.value() : null;
+    }
+
+    @Override
+    public Object readTree(Path path) throws IOException {
+        if (Files.notExists(path)) return new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            YamlEventReader in = new YamlEventReader(reader);
+            return in.peek() == ConfigReader.Token.END_DOCUMENT ? new LinkedHashMap<>() : in.readTree();
+        } catch (YamlEventReader.UnsupportedYamlException e) {
+            return loadNodes(path);
+        } catch (YAMLException e) {
+            throw new IOException("Failed to load YAML " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object decode(Object tree, Type type) {
+        return mapper.treeMapper().toObject(tree, type);
+    }
+
+    private Object loadNodes(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            Object tree = new Yaml(new LoaderOptions()).load(reader);
+            return tree != null ? tree : new LinkedHashMap<>();
+        } catch (YAMLException e) {
+            throw new IOException("Failed to load YAML " + path + ": " + e.getMessage(), e);
+        }
+    }
+}
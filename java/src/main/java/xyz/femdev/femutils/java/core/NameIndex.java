@@ -0,0 +1,175 @@
+package xyz.femdev.femutils.java.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable, precomputed name to value lookup table.
+ * <p>
+ * Names are matched case-insensitively, and {@code '-'} and {@code ' '} match {@code '_'}, so
+ * {@code "diamond-sword"} finds {@code DIAMOND_SWORD}. Lookups hash the {@link CharSequence}
+ * in place and never allocate or throw, unlike {@link Enum#valueOf}.
+ * </p>
+ *
+ * @param <V> the value type
+ */
+public final class NameIndex<V> {
+
+    private static final ClassValue<NameIndex<?>> ENUMS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected NameIndex<?> computeValue(Class<?> type) {
+            Enum[] constants = ((Class<? extends Enum>) type).getEnumConstants();
+            return of(List.of(constants), Enum::name);
+        }
+    };
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final List<V> all;
+
+    private NameIndex(List<String> names, List<V> named, List<V> all) {
+        int capacity = Integer.highestOneBit(Math.max(4, names.size() * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.all = all;
+        for (int n = 0; n < names.size(); n++) {
+            String key = fold(names.get(n));
+            int i = hash(key) & mask;
+            while (keys[i] != null && !keys[i].equals(key)) i = (i + 1) & mask;
+            // the first value registered under a name wins
+            if (keys[i] == null) {
+                keys[i] = key;
+                values[i] = named.get(n);
+            }
+        }
+    }
+
+    /**
+     * Builds an index over the given values.
+     *
+     * @param values the values to index
+     * @param name   the name of each value
+     */
+    public static <V> NameIndex<V> of(Iterable<? extends V> values, Function<? super V, String> name) {
+        Builder<V> builder = builder();
+        for (V v : values) builder.add(name.apply(v), v);
+        return builder.build();
+    }
+
+    /**
+     * @return a builder for indexes where values can have several names
+     */
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return the shared index of an enum's constants by {@link Enum#name()}
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> NameIndex<E> ofEnum(Class<E> type) {
+        return (NameIndex<E>) ENUMS.get(type);
+    }
+
+    /**
+     * @return the value with the given name, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V get(CharSequence name) {
+        int i = hash(name) & mask;
+        String key;
+        while ((key = keys[i]) != null) {
+            if (matches(key, name)) return (V) values[i];
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return the value with the given name, or {@code fallback}
+     */
+    public V get(CharSequence name, V fallback) {
+        V v = get(name);
+        return v != null ? v : fallback;
+    }
+
+    /**
+     * @return every indexed value once, in the order added
+     */
+    public List<V> values() {
+        return all;
+    }
+
+    /**
+     * @return the number of indexed values
+     */
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * Collects names and values for a {@link NameIndex}.
+     *
+     * @param <V> the value type
+     */
+    public static final class Builder<V> {
+        private final List<String> names = new ArrayList<>();
+        private final List<V> named = new ArrayList<>();
+        private final List<V> all = new ArrayList<>();
+        private final Set<V> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a name for a value. A value can be added under several names.
+         */
+        public Builder<V> add(String name, V value) {
+            names.add(Objects.requireNonNull(name, "name"));
+            named.add(Objects.requireNonNull(value, "value"));
+            if (seen.add(value)) all.add(value);
+            return this;
+        }
+
+        /**
+         * @return the immutable index
+         */
+        public NameIndex<V> build() {
+            return new NameIndex<>(names, named, Collections.unmodifiableList(new ArrayList<>(all)));
+        }
+    }
+
+    private static boolean matches(String key, CharSequence name) {
+        if (key.length() != name.length()) return false;
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != fold(name.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) h = 31 * h + fold(s.charAt(i));
+        return h ^ (h >>> 16);
+    }
+
+    private static String fold(String s) {
+        char[] chars = new char[s.length()];
+        for (int i = 0; i < chars.length; i++) chars[i] = fold(s.charAt(i));
+        return new String(chars);
+    }
+
+    private static char fold(char c) {
+        if (c >= 'A' && c <= 'Z') return (char) (c + ('a' - 'A'));
+        if (c == '-' || c == ' ') return '_';
+        return c < 0x80 ? c : Character.toLowerCase(c);
+    }
+}
@@ -0,0 +1,281 @@
+package xyz.femdev.femutils.java.profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated timings of one thread, merged by call path.
+ * <p>
+ * Every distinct path of {@link ProfilerKey}s becomes a node with a count, total, min, max and a
+ * {@link LatencyHistogram} bucket array, so memory depends on the number of paths rather
+ * than the number of calls. Nodes are only ever
+ * added, by the owning thread. Statistics live in a {@link Window} that other threads can
+ * {@link #swap()} for an empty one to read finished windows without stopping the owner. Read
+ * windows are handed back through {@link #recycle}, so two windows and their bucket arrays are
+ * reused for as long as the tree lives.
+ * </p>
+ */
+final class CallTree {
+
+    // node structure; written by the owner only and published through size
+    private volatile int[] keys = new int[64];
+    private volatile int[] parents = new int[64];
+    private volatile int size;
+
+    // (parent, key) -> node + 1, owner only
+    private long[] slotKeys = new long[128];
+    private int[] slotNodes = new int[128];
+
+    private volatile Window window = new Window(64);
+    // finished window handed back by recycle(), installed by the next swap()
+    private Window spare;
+
+    /**
+     * @return the node for {@code key} below {@code parent} ({@code -1} for a root), created if needed
+     */
+    int child(int parent, int key) {
+        long k = ((long) parent << 32) | (key & 0xFFFFFFFFL);
+        int mask = slotNodes.length - 1;
+        int i = mix(k) & mask;
+        int n;
+        while ((n = slotNodes[i]) != 0) {
+            if (slotKeys[i] == k) return n - 1;
+            i = (i + 1) & mask;
+        }
+        int node = size;
+        int[] ks = keys;
+        int[] ps = parents;
+        if (node == ks.length) {
+            ks = Arrays.copyOf(ks, node * 2);
+            ps = Arrays.copyOf(ps, node * 2);
+        }
+        ks[node] = key;
+        ps[node] = parent;
+        keys = ks;
+        parents = ps;
+        size = node + 1;
+        slotKeys[i] = k;
+        slotNodes[i] = node + 1;
+        if (size * 2 > slotNodes.length) rehash();
+        return node;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int key(int node) {
+        return keys[node];
+    }
+
+    /**
+     * Adds one call of a node to the current window. Owner thread only.
+     */
+    void record(int node, long nanos) {
+        Window w = window;
+        // pairs with swap(): either it sees us writing, or we see its new window
+        while (true) {
+            w.writing = true;
+            Window current = window;
+            if (current == w) break;
+            w.writing = false;
+            w = current;
+        }
+        w.add(node, nanos);
+        w.writing = false;
+    }
+
+    /**
+     * Replaces the current window with an empty one.
+     *
+     * @return the finished window, no longer written to
+     */
+    synchronized Window swap() {
+        Window old = window;
+        Window next = spare;
+        spare = null;
+        window = next != null ? next : new Window(Math.max(old.count.length, size));
+        while (old.writing) Thread.onSpinWait();
+        return old;
+    }
+
+    /**
+     * Clears a window returned by {@link #swap()} once it has been read, for the next swap to reuse.
+     * Sections built from it must not be built again afterwards.
+     */
+    synchronized void recycle(Window w) {
+        w.clear();
+        spare = w;
+    }
+
+    /**
+     * @return the window being written to; only safe to read on the owner thread
+     */
+    Window current() {
+        return window;
+    }
+
+    /**
+     * Builds report sections for every path that was called in the given window.
+     */
+    List<ProfilerReportSection> sections(Window w) {
+        Merged root = new Merged(null);
+        mergeInto(w, root);
+        return root.childSections();
+    }
+
+    /**
+     * Adds the given window to a merged tree, matching paths by section name, so windows of
+     * several threads can be reported together. The merged tree refers to the window's buckets
+     * until its sections are built.
+     */
+    void mergeInto(Window w, Merged root) {
+        int n = size;
+        int[] ks = keys;
+        int[] ps = parents;
+        Merged[] merged = new Merged[n];
+        // parents always have lower ids than their children
+        for (int i = 0; i < n; i++) {
+            Merged m = (ps[i] == -1 ? root : merged[ps[i]]).child(ProfilerKey.byId(ks[i]).name());
+            merged[i] = m;
+            if (i < w.count.length && w.count[i] > 0) m.add(w.count[i], w.total[i], w.min[i], w.max[i], w.buckets[i]);
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = slotKeys;
+        int[] oldNodes = slotNodes;
+        slotKeys = new long[oldKeys.length * 2];
+        slotNodes = new int[oldNodes.length * 2];
+        int mask = slotNodes.length - 1;
+        for (int j = 0; j < oldNodes.length; j++) {
+            if (oldNodes[j] == 0) continue;
+            int i = mix(oldKeys[j]) & mask;
+            while (slotNodes[i] != 0) i = (i + 1) & mask;
+            slotKeys[i] = oldKeys[j];
+            slotNodes[i] = oldNodes[j];
+        }
+    }
+
+    private static int mix(long k) {
+        k *= 0x9E3779B97F4A7C15L;
+        return (int) (k ^ (k >>> 32));
+    }
+
+    /**
+     * Per-node statistics of one window, indexed by node id.
+     */
+    static final class Window {
+        long[] count;
+        long[] total;
+        long[] min;
+        long[] max;
+        long[][] buckets;
+        volatile boolean writing;
+
+        Window(int capacity) {
+            count = new long[capacity];
+            total = new long[capacity];
+            min = new long[capacity];
+            max = new long[capacity];
+            // allocated on first call of a path and kept when the window is reused
+            buckets = new long[capacity][];
+        }
+
+        void add(int node, long nanos) {
+            if (node >= count.length) grow(node);
+            if (count[node]++ == 0 || nanos < min[node]) min[node] = nanos;
+            if (nanos > max[node]) max[node] = nanos;
+            total[node] += nanos;
+            long[] b = buckets[node];
+            if (b == null) b = buckets[node] = new long[LatencyHistogram.BUCKETS];
+            b[LatencyHistogram.bucket(Math.max(0, nanos))]++;
+        }
+
+        void clear() {
+            for (int i = 0; i < count.length; i++) {
+                if (count[i] == 0) continue;
+                count[i] = 0;
+                total[i] = 0;
+                max[i] = 0;
+                Arrays.fill(buckets[i], 0);
+            }
+        }
+
+        private void grow(int node) {
+            int n = Math.max(count.length * 2, node + 1);
+            count = Arrays.copyOf(count, n);
+            total = Arrays.copyOf(total, n);
+            min = Arrays.copyOf(min, n);
+            max = Arrays.copyOf(max, n);
+            buckets = Arrays.copyOf(buckets, n);
+        }
+    }
+
+    /**
+     * Statistics of one call path summed over one or more windows.
+     */
+    static final class Merged {
+        private final String name;
+        private final Map<String, Merged> children = new LinkedHashMap<>();
+        private long count;
+        private long total;
+        private long min = Long.MAX_VALUE;
+        private long max;
+        private long[] buckets;
+        // buckets still belong to the single window added so far
+        private boolean shared;
+
+        /**
+         * @param name section name, {@code null} for the root that holds the top-level sections
+         */
+        Merged(String name) {
+            this.name = name;
+        }
+
+        Merged child(String name) {
+            return children.computeIfAbsent(name, Merged::new);
+        }
+
+        void add(long count, long total, long min, long max, long[] buckets) {
+            this.count += count;
+            this.total += total;
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+            if (this.buckets == null) {
+                this.buckets = buckets;
+                shared = true;
+                return;
+            }
+            if (shared) {
+                this.buckets = this.buckets.clone();
+                shared = false;
+            }
+            for (int i = 0; i < buckets.length; i++) this.buckets[i] += buckets[i];
+        }
+
+        /**
+         * @return sections of the children that were called, or have called descendants
+         */
+        List<ProfilerReportSection> childSections() {
+            List<ProfilerReportSection> out = new ArrayList<>(children.size());
+            for (Merged child : children.values()) {
+                ProfilerReportSection section = child.section();
+                if (section != null) out.add(section);
+            }
+            return out;
+        }
+
+        private ProfilerReportSection section() {
+            List<ProfilerReportSection> kids = childSections();
+            if (count == 0) {
+                return kids.isEmpty() ? null : new ProfilerReportSection(name, 0, 0, 0, 0, Percentiles.of(0), kids);
+            }
+            return new ProfilerReportSection(name, total, count, min, max,
+                    LatencyHistogram.percentiles(buckets, count, min, max), kids);
+        }
+    }
+}
@@ -13,23 +13,34 @@ public class ConsoleProfilerRenderer implements ProfilerRenderer {
     private static final DateTimeFormatter TIME_FMT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
                     .withZone(ZoneId.systemDefault());
+    private static final String LINE = "-".repeat(133);
 
     @Override
     public void render(ProfilerReport report, PrintStream out) {
         out.println("Profiler Report @ " + TIME_FMT.format(Instant.ofEpochMilli(report.timestamp())));
-        out.println("------------------------------------------------------------");
-        out.printf("%-40s %12s%n", "Section", "Duration(ms)");
-        out.println("------------------------------------------------------------");
+        out.println(LINE);
+        out.printf("%-40s %12s %8s %10s %10s %10s %10s %10s %10s%n", "Section", "Duration(ms)", "Calls",
+                "Avg(ms)", "p50(ms)", "p90(ms)", "p99(ms)", "p999(ms)", "Max(ms)");
+        out.println(LINE);
         for (var root : report.roots()) {
             renderSection(root, out, 0);
         }
-        out.println("------------------------------------------------------------");
+        for (var group : report.threads()) {
+            out.println("[" + group.name() + "] " + String.join(", ", group.threads()));
+            for (var root : group.roots()) {
+                renderSection(root, out, 1);
+            }
+        }
+        out.println(LINE);
     }
 
     private void renderSection(ProfilerReportSection section, PrintStream out, int indent) {
         String indentStr = "  ".repeat(indent);
         double ms = section.elapsedNanos() / 1_000_000.0;
-        out.printf("%-40s %12.3f%n", indentStr + section.name(), ms);
+        Percentiles p = section.percentiles();
+        out.printf("%-40s %12.3f %8d %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f%n", indentStr + section.name(), ms,
+                section.count(), section.averageNanos() / 1_000_000.0, p.p50() / 1_000_000.0, p.p90() / 1_000_000.0,
+                p.p99() / 1_000_000.0, p.p999() / 1_000_000.0, section.maxNanos() / 1_000_000.0);
         for (var child : section.children()) {
             renderSection(child, out, indent + 1);
         }
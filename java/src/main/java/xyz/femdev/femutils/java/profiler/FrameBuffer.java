@@ -0,0 +1,91 @@
+package xyz.femdev.femutils.java.profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reusable copy of the sections one thread recorded, filled by {@link Profiler#drainCurrentThread}.
+ * <p>
+ * Frames are kept as primitive arrays that are reused across fills, so keeping a ring of buffers,
+ * e.g. one per recent server tick, allocates nothing once warmed up. Report sections are only
+ * built when {@link #sections()} is called. Not thread-safe.
+ * </p>
+ */
+public final class FrameBuffer {
+
+    int[] keys = new int[0];
+    String[] names = new String[0];
+    int[] parents = new int[0];
+    long[] starts = new long[0];
+    long[] ends = new long[0];
+    int size;
+
+    /**
+     * @return number of recorded sections, nested ones included
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all sections, keeping the arrays for the next fill.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the root sections, with their children, in start order
+     */
+    public List<ProfilerReportSection> sections() {
+        return build(keys, names, parents, starts, ends, size);
+    }
+
+    void copy(int[] keys, String[] names, int[] parents, long[] starts, long[] ends, int n) {
+        if (this.keys.length < n) {
+            int capacity = Math.max(n, this.keys.length * 2);
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.names = Arrays.copyOf(this.names, capacity);
+            this.parents = Arrays.copyOf(this.parents, capacity);
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.ends = Arrays.copyOf(this.ends, capacity);
+        }
+        System.arraycopy(keys, 0, this.keys, 0, n);
+        System.arraycopy(names, 0, this.names, 0, n);
+        System.arraycopy(parents, 0, this.parents, 0, n);
+        System.arraycopy(starts, 0, this.starts, 0, n);
+        System.arraycopy(ends, 0, this.ends, 0, n);
+        size = n;
+    }
+
+    /**
+     * Builds report sections from closed frames in start order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static List<ProfilerReportSection> build(int[] keys, String[] names, int[] parents, long[] starts, long[] ends, int n) {
+        List<ProfilerReportSection>[] children = new List[n];
+        List<ProfilerReportSection> roots = new ArrayList<>();
+        // children always start after their parent, so walk backwards
+        for (int i = n - 1; i >= 0; i--) {
+            List<ProfilerReportSection> kids = children[i];
+            if (kids == null) {
+                kids = List.of();
+            } else {
+                Collections.reverse(kids);
+            }
+            String name = keys[i] == ThreadFrames.UNNAMED ? names[i] : ProfilerKey.byId(keys[i]).name();
+            var section = new ProfilerReportSection(name, ends[i] - starts[i], kids);
+            int p = parents[i];
+            if (p == -1) {
+                roots.add(section);
+            } else {
+                if (children[p] == null) children[p] = new ArrayList<>();
+                children[p].add(section);
+            }
+        }
+        Collections.reverse(roots);
+        return roots;
+    }
+}
@@ -0,0 +1,78 @@
+package xyz.femdev.femutils.java.profiler;
+
+/**
+ * Log-linear bucketing of nanosecond latencies, in the style of HdrHistogram.
+ * <p>
+ * Every power of two is split into 32 linear buckets, so a value is off by at most about 3% while
+ * the whole range up to about 68 seconds fits in 1024 counters. Larger values share the last
+ * bucket. {@link CallTree} keeps one {@code long[]} of counts per call path in a window, written
+ * only by the owning thread.
+ * </p>
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    /** Largest value with its own bucket, about 68 seconds. */
+    static final long MAX_TRACKABLE = (1L << 36) - 1;
+    /** Number of buckets. */
+    static final int BUCKETS = bucket(MAX_TRACKABLE) + 1;
+
+    private LatencyHistogram() {
+    }
+
+    /**
+     * @return the bucket of a non-negative value
+     */
+    static int bucket(long value) {
+        if (value > MAX_TRACKABLE) value = MAX_TRACKABLE;
+        if (value < SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) - SUB_COUNT);
+    }
+
+    /**
+     * @return the smallest value that falls into a bucket
+     */
+    static long lowest(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int shift = (bucket >>> SUB_BITS) - 1;
+        return (long) ((bucket & (SUB_COUNT - 1)) + SUB_COUNT) << shift;
+    }
+
+    /**
+     * Computes percentiles from bucket counts.
+     *
+     * @param counts per-bucket counts, indexed by {@link #bucket}
+     * @param total  sum of {@code counts}
+     * @param min    exact smallest value, used to clamp estimates
+     * @param max    exact largest value, reported as the maximum
+     */
+    static Percentiles percentiles(long[] counts, long total, long min, long max) {
+        return new Percentiles(
+                valueAt(counts, total, 0.5, min, max),
+                valueAt(counts, total, 0.9, min, max),
+                valueAt(counts, total, 0.99, min, max),
+                valueAt(counts, total, 0.999, min, max),
+                max
+        );
+    }
+
+    private static long valueAt(long[] counts, long total, double fraction, long min, long max) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // the last bucket also holds everything too large to track
+                if (i == BUCKETS - 1) return max;
+                // middle of the bucket, but never outside what was actually recorded
+                long low = lowest(i);
+                long high = lowest(i + 1) - 1;
+                return Math.min(max, Math.max(min, low + (high - low) / 2));
+            }
+        }
+        return max;
+    }
+}
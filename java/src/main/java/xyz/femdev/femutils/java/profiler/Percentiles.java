@@ -0,0 +1,20 @@
+package xyz.femdev.femutils.java.profiler;
+
+/**
+ * Latency percentiles of a profiled section, in nanoseconds.
+ *
+ * @param p50  median
+ * @param p90  90th percentile
+ * @param p99  99th percentile
+ * @param p999 99.9th percentile
+ * @param max  slowest call
+ */
+public record Percentiles(long p50, long p90, long p99, long p999, long max) {
+
+    /**
+     * @return percentiles of a single call
+     */
+    public static Percentiles of(long nanos) {
+        return new Percentiles(nanos, nanos, nanos, nanos, nanos);
+    }
+}
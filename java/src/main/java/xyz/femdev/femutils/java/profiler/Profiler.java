@@ -1,28 +1,119 @@
 package xyz.femdev.femutils.java.profiler;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * Central API for starting and managing profiling sections.
  * <p>
  * Each thread profiles independently.
  * Provides methods to start sections, retrieve results, and reset state.
+ * {@link ProfilerReport#captureAll()} reads every thread without stopping it.
+ * </p>
+ * <p>
+ * Frames are stored per thread in primitive arrays. {@link #start(ProfilerKey)} with a
+ * pre-registered key allocates nothing once the thread is warmed up, so it can wrap per-entity
+ * or per-event code; {@link #start(String)} is the convenient form and returns a
+ * {@link ProfilerSection} view of the frame.
+ * </p>
+ * <p>
+ * In {@link Mode#AGGREGATE} mode, calls are merged by call path instead of recorded, which
+ * keeps memory bounded when every tick or event is profiled.
  * </p>
  */
 public final class Profiler {
     private Profiler() {
     }
 
-    // stack of active ProfilerSection instances
-    private static final ThreadLocal<Deque<ProfilerSection>> STACK = ThreadLocal.withInitial(ArrayDeque::new);
+    // frames recorded by each thread
+    private static final ThreadLocal<ThreadFrames> FRAMES = ThreadLocal.withInitial(Profiler::register);
+
+    // every thread that has used the profiler, for ProfilerReport.captureAll()
+    private static final Set<ThreadFrames> ALL_FRAMES = ConcurrentHashMap.newKeySet();
+
+    // bumped by reset(), other threads drop their frames when they next see it
+    private static volatile int epoch;
+
+    private static volatile Mode mode = Mode.RECORD;
+
+    /**
+     * How sections are stored.
+     */
+    public enum Mode {
+        /**
+         * Every section is kept, with its own timing and children, until {@link #reset()}.
+         */
+        RECORD,
+        /**
+         * Sections are merged by call path into nodes with a count, total, min and max, so memory
+         * stays proportional to the number of distinct paths. Read them with
+         * {@link ProfilerReport#capture()} or {@link ProfilerReport#captureWindow()}.
+         */
+        AGGREGATE
+    }
+
+    /**
+     * Sets how sections are stored from now on. Each thread switches the next time it starts a
+     * section outside any open one; data stored in the other mode is kept until {@link #reset()}.
+     */
+    public static void setMode(Mode mode) {
+        Profiler.mode = Objects.requireNonNull(mode, "mode");
+    }
+
+    /**
+     * @return the current storage mode
+     */
+    public static Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Sets how sections of the calling thread are stored, regardless of {@link #setMode}. Applies
+     * the next time the thread starts a section outside any open one.
+     *
+     * @param mode the thread's mode, or {@code null} to follow the global mode again
+     */
+    public static void setThreadMode(Mode mode) {
+        FRAMES.get().mode = mode;
+    }
+
+    /**
+     * Moves the sections recorded on the calling thread into a buffer and clears them, leaving other
+     * threads alone. Nothing happens while a section is open on the thread.
+     * <p>
+     * Allocation-free once the buffer has grown to the usual number of sections, which makes it
+     * suitable for slicing a thread's sections into ticks or requests.
+     * </p>
+     *
+     * @param into the buffer to fill, or {@code null} to drop the sections
+     * @return {@code false} if a section is open and nothing was moved
+     */
+    public static boolean drainCurrentThread(FrameBuffer into) {
+        ThreadFrames frames = frames();
+        if (frames.depth() != 0) return false;
+        frames.drain(into);
+        return true;
+    }
 
-    // registry of root sections per thread ID
-    private static final ConcurrentMap<Long, List<ProfilerSection>> ROOT_SECTIONS = new ConcurrentHashMap<>();
+    /**
+     * Start a new profiling section for a pre-registered key.
+     * <p>
+     * Returned scope is shared by every section of the thread; closing it ends the innermost
+     * open section. Use it in a try-with-resources block.
+     * </p>
+     *
+     * @param key the section key, usually a constant
+     * @return the thread's scope
+     */
+    public static ProfilerScope start(ProfilerKey key) {
+        ThreadFrames frames = frames();
+        frames.push(key.id());
+        return frames.scope;
+    }
 
     /**
      * Start a new profiling section with the given name.
@@ -30,25 +121,22 @@ public final class Profiler {
      * Returned ProfilerSection implements AutoCloseable, use it in a try-with-resources
      * block. When closed, the section's end time is recorded and it is popped from the stack.
      * </p>
+     * <p>
+     * While recording, a name that is not a registered {@link ProfilerKey} is stored with the frame
+     * and dropped with it, so dynamic names such as {@code "entity-" + id} are fine. In
+     * {@link Mode#AGGREGATE} mode sections are merged by key, so every name is registered for the
+     * life of the JVM; keep aggregated names to a fixed set.
+     * </p>
      *
      * @param name a human-readable identifier for the section
      * @return a new ProfilerSection representing the started section
      */
     public static ProfilerSection start(String name) {
-        ProfilerSection parent = STACK.get().peek();
-        ProfilerSection section = new ProfilerSection(name, parent);
-        STACK.get().push(section);
-
-        if (parent == null) {
-            ROOT_SECTIONS
-                    .computeIfAbsent(Thread.currentThread().threadId(), id -> new ArrayList<>())
-                    .add(section);
-        } else {
-            parent.addChild(section);
-        }
-
-        section.markStart();
-        return section;
+        ProfilerKey key = ProfilerKey.find(name);
+        ThreadFrames frames = frames();
+        int depth = frames.depth();
+        int index = key != null ? frames.push(key.id()) : frames.push(name);
+        return new ProfilerSection(frames, index, depth, name);
     }
 
     /**
@@ -57,32 +145,68 @@ public final class Profiler {
      * Use this to obtain completed root sections for reporting or analysis.
      * </p>
      *
-     * @return an immutable list of root ProfilerSection instances for this thread
+     * @return an immutable list of root ProfilerSection instances for this thread,
+     * empty in {@link Mode#AGGREGATE} mode
      */
     public static List<ProfilerSection> getRootsForCurrentThread() {
-        return ROOT_SECTIONS.getOrDefault(Thread.currentThread().threadId(), List.of());
+        ThreadFrames frames = frames();
+        List<ProfilerSection> roots = new ArrayList<>();
+        for (int i = 0; i < frames.size; i++) {
+            if (frames.parents[i] == -1) roots.add(new ProfilerSection(frames, i, -1, frames.name(i)));
+        }
+        return Collections.unmodifiableList(roots);
     }
 
     /**
      * Clear all profiling data and active stacks for all threads.
      * <p>
      * After calling, no sections remain recorded. Useful for resetting between runs.
+     * Other threads drop their data the next time they start a section outside any open one.
      * </p>
      */
     public static void reset() {
-        STACK.get().clear();
-        ROOT_SECTIONS.clear();
+        epoch++;
+        ThreadFrames frames = FRAMES.get();
+        frames.clear();
+        frames.epoch = epoch;
+    }
+
+    private static ThreadFrames register() {
+        ThreadFrames frames = new ThreadFrames(Thread.currentThread());
+        // new threads are rare compared to sections, so this is where dead ones are dropped
+        ALL_FRAMES.removeIf(f -> !f.thread.isAlive());
+        ALL_FRAMES.add(frames);
+        return frames;
+    }
+
+    /**
+     * @return frames of every thread that has used the profiler and was alive at its last
+     * registration or capture; threads that ended since are included one last time
+     */
+    static List<ThreadFrames> allFrames() {
+        List<ThreadFrames> all = new ArrayList<>(ALL_FRAMES);
+        ALL_FRAMES.removeIf(f -> !f.thread.isAlive());
+        return all;
+    }
+
+    /**
+     * @return {@code false} if the last {@link #reset()} still has to be applied by the frames' thread
+     */
+    static boolean isCurrent(ThreadFrames frames) {
+        return frames.epoch == epoch;
     }
 
-    static void pop(ProfilerSection section) {
-        Deque<ProfilerSection> stack = STACK.get();
-        if (stack.peek() != section) {
-            throw new IllegalStateException(
-                    "Profiling sections must be closed in LIFO order. Expected "
-                            + section.getName() + " but found "
-                            + (stack.peek() != null ? stack.peek().getName() : "none")
-            );
+    static ThreadFrames frames() {
+        ThreadFrames frames = FRAMES.get();
+        if (frames.depth() == 0) {
+            int e = epoch;
+            if (frames.epoch != e) {
+                frames.clear();
+                frames.epoch = e;
+            }
+            boolean aggregate = (frames.mode != null ? frames.mode : mode) == Mode.AGGREGATE;
+            if (frames.aggregate() != aggregate) frames.aggregate(aggregate);
         }
-        stack.pop();
+        return frames;
     }
 }
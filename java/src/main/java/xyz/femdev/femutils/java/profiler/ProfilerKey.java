@@ -0,0 +1,80 @@
+package xyz.femdev.femutils.java.profiler;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A pre-registered section name, for hot paths.
+ * <p>
+ * Keep keys in static fields and pass them to {@link Profiler#start(ProfilerKey)}; frames then only
+ * store the key's id, and starting and closing a section allocates nothing. Keys are interned, so
+ * {@code ProfilerKey.of("x") == ProfilerKey.of("x")}, and live as long as the JVM, so only create
+ * keys for a fixed set of names. Dynamic names such as {@code "entity-" + id} belong in
+ * {@link Profiler#start(String)}, which does not register them while recording.
+ * </p>
+ */
+public final class ProfilerKey {
+
+    private static final ConcurrentMap<String, ProfilerKey> BY_NAME = new ConcurrentHashMap<>();
+    private static volatile ProfilerKey[] byId = new ProfilerKey[64];
+    private static int count; // guarded by ProfilerKey.class
+
+    private final String name;
+    private final int id;
+
+    private ProfilerKey(String name, int id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * @return the key for the given section name, registering it on first use
+     */
+    public static ProfilerKey of(String name) {
+        ProfilerKey key = BY_NAME.get(name);
+        return key != null ? key : register(name);
+    }
+
+    /**
+     * @return the key registered for the name, or {@code null}; never registers one
+     */
+    static ProfilerKey find(String name) {
+        return BY_NAME.get(name);
+    }
+
+    static ProfilerKey byId(int id) {
+        return byId[id];
+    }
+
+    private static synchronized ProfilerKey register(String name) {
+        ProfilerKey key = BY_NAME.get(name);
+        if (key != null) return key;
+        key = new ProfilerKey(name, count);
+        ProfilerKey[] ids = byId;
+        if (count == ids.length) ids = Arrays.copyOf(ids, count * 2);
+        ids[count++] = key;
+        byId = ids;
+        BY_NAME.put(name, key);
+        return key;
+    }
+
+    /**
+     * @return section name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return dense id of this key, assigned in registration order
+     */
+    public int id() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,26 +1,113 @@
 package xyz.femdev.femutils.java.profiler;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Immutable snapshot of profiling data at a point in time.
  *
  * @param timestamp epoch milliseconds when the snapshot was taken
  * @param roots     list of root sections
+ * @param threads   sections per thread or thread pool, only filled by {@link #captureAll()}
  */
-public record ProfilerReport(long timestamp, List<ProfilerReportSection> roots) {
+public record ProfilerReport(long timestamp, List<ProfilerReportSection> roots, List<ThreadGroupReport> threads) {
+
+    /**
+     * Creates a report of a single thread.
+     */
+    public ProfilerReport(long timestamp, List<ProfilerReportSection> roots) {
+        this(timestamp, roots, List.of());
+    }
 
     /**
      * Capture a ProfilerReport of the current thread's root sections.
+     * <p>
+     * In {@link Profiler.Mode#AGGREGATE} mode, the report holds one section per call path with
+     * the calls of the current window, including their latency {@link Percentiles}.
+     * </p>
      *
      * @return a fresh ProfilerReport
      */
     public static ProfilerReport capture() {
         long now = Instant.now().toEpochMilli();
+        ThreadFrames frames = Profiler.frames();
+        if (frames.aggregate()) {
+            CallTree tree = frames.tree();
+            return new ProfilerReport(now, tree.sections(tree.current()));
+        }
         var roots = Profiler.getRootsForCurrentThread().stream()
                 .map(ProfilerReportSection::fromSection)
                 .toList();
         return new ProfilerReport(now, roots);
     }
+
+    /**
+     * Capture the current thread's aggregated sections and start a new window, so consecutive
+     * calls each cover the time since the previous one.
+     *
+     * @return a report of the finished window; empty if nothing was aggregated
+     */
+    public static ProfilerReport captureWindow() {
+        long now = Instant.now().toEpochMilli();
+        CallTree tree = Profiler.frames().tree();
+        CallTree.Window window = tree.swap();
+        try {
+            return new ProfilerReport(now, tree.sections(window));
+        } finally {
+            tree.recycle(window);
+        }
+    }
+
+    /**
+     * Capture the sections of every thread that uses the profiler, grouped by thread pool.
+     * <p>
+     * Threads are not stopped or blocked. Recorded sections are included up to the point where
+     * each thread last left its outermost section. Aggregated sections cover the window since the
+     * previous {@link #captureAll()} or {@link #captureWindow()}, which is swapped for a new one
+     * on every thread. Threads that ended since the previous capture are included one last time.
+     * </p>
+     *
+     * @return a report with empty {@link #roots()} and one {@link ThreadGroupReport} per group
+     */
+    public static ProfilerReport captureAll() {
+        long now = Instant.now().toEpochMilli();
+        Map<String, Group> groups = new TreeMap<>();
+        List<CallTree> trees = new ArrayList<>();
+        List<CallTree.Window> windows = new ArrayList<>();
+        for (ThreadFrames frames : Profiler.allFrames()) {
+            if (!Profiler.isCurrent(frames)) continue;
+            String thread = frames.thread.getName();
+            Group group = groups.computeIfAbsent(ThreadGroupReport.groupName(thread), k -> new Group());
+            group.threads.add(thread);
+            group.recorded.addAll(frames.recorded());
+            CallTree tree = frames.tree();
+            if (tree.size() > 0) {
+                CallTree.Window window = tree.swap();
+                tree.mergeInto(window, group.aggregated);
+                trees.add(tree);
+                windows.add(window);
+            }
+        }
+
+        List<ThreadGroupReport> threads = new ArrayList<>(groups.size());
+        groups.forEach((name, group) -> {
+            List<ProfilerReportSection> roots = new ArrayList<>(group.aggregated.childSections());
+            roots.addAll(group.recorded);
+            if (roots.isEmpty()) return;
+            group.threads.sort(null);
+            threads.add(new ThreadGroupReport(name, List.copyOf(group.threads), List.copyOf(roots)));
+        });
+        // sections are built, the windows can be written again
+        for (int i = 0; i < trees.size(); i++) trees.get(i).recycle(windows.get(i));
+        return new ProfilerReport(now, List.of(), List.copyOf(threads));
+    }
+
+    private static final class Group {
+        final List<String> threads = new ArrayList<>();
+        final List<ProfilerReportSection> recorded = new ArrayList<>();
+        final CallTree.Merged aggregated = new CallTree.Merged(null);
+    }
 }
@@ -4,16 +4,43 @@ import java.util.List;
 
 /**
  * Data Transfer Object representing a single section in a ProfilerReport.
+ * <p>
+ * Sections of an aggregated report stand for every call of one call path; a recorded
+ * section is a single call.
+ * </p>
  *
  * @param name         the section name
- * @param elapsedNanos elapsed time in nanoseconds
+ * @param elapsedNanos elapsed time in nanoseconds, summed over all calls
+ * @param count        number of calls
+ * @param minNanos     fastest call in nanoseconds
+ * @param maxNanos     slowest call in nanoseconds
+ * @param percentiles  latency percentiles of the calls
  * @param children     nested child sections
  */
 public record ProfilerReportSection(
         String name,
         long elapsedNanos,
+        long count,
+        long minNanos,
+        long maxNanos,
+        Percentiles percentiles,
         List<ProfilerReportSection> children
 ) {
+
+    /**
+     * Creates a section for a single call.
+     */
+    public ProfilerReportSection(String name, long elapsedNanos, List<ProfilerReportSection> children) {
+        this(name, elapsedNanos, 1, elapsedNanos, elapsedNanos, Percentiles.of(elapsedNanos), children);
+    }
+
+    /**
+     * @return mean time per call in nanoseconds
+     */
+    public double averageNanos() {
+        return count == 0 ? 0 : (double) elapsedNanos / count;
+    }
+
     /**
      * Convert a live ProfilerSection into its immutable DTO form (recursive).
      */
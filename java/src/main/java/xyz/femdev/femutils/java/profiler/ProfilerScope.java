@@ -0,0 +1,25 @@
+package xyz.femdev.femutils.java.profiler;
+
+/**
+ * Closes the innermost open section of a thread, returned by {@link Profiler#start(ProfilerKey)}.
+ * <p>
+ * Each thread has a single instance that is returned for every section, which is what keeps the
+ * keyed API allocation-free. Use it in a try-with-resources block on the thread that started the section.
+ * </p>
+ */
+public final class ProfilerScope implements AutoCloseable {
+
+    private final ThreadFrames frames;
+
+    ProfilerScope(ThreadFrames frames) {
+        this.frames = frames;
+    }
+
+    /**
+     * Record the end time of the innermost open section and pop it.
+     */
+    @Override
+    public void close() {
+        frames.pop();
+    }
+}
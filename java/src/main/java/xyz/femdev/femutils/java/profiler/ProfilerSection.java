@@ -7,35 +7,35 @@ import java.util.List;
 /**
  * Represents a timed section of code, supports nesting.
  * Implements AutoCloseable so that closing marks end.
+ * <p>
+ * A view of one frame in its thread's {@link Profiler} storage; it stays valid until the
+ * profiler is reset. Sections started in {@link Profiler.Mode#AGGREGATE} mode are not recorded,
+ * so they have no children or parent, and only their own elapsed time once closed.
+ * </p>
  */
 public final class ProfilerSection implements AutoCloseable {
 
+    private final ThreadFrames frames;
+    private final int index;
+    private final int depth;
     private final String name;
-    private final ProfilerSection parent;
-    private final List<ProfilerSection> children = new ArrayList<>();
+    private final int generation;
+    private long elapsed = ThreadFrames.OPEN;
 
-    private long startTime;
-    private long endTime;
-    private boolean closed = false;
-
-    ProfilerSection(String name, ProfilerSection parent) {
+    /**
+     * @param index frame index, or {@code -1} for an aggregated section
+     * @param depth number of sections that were open when this one started
+     */
+    ProfilerSection(ThreadFrames frames, int index, int depth, String name) {
+        this.frames = frames;
+        this.index = index;
+        this.depth = depth;
         this.name = name;
-        this.parent = parent;
-    }
-
-    void markStart() {
-        this.startTime = System.nanoTime();
-    }
-
-    void markEnd() {
-        this.endTime = System.nanoTime();
+        this.generation = frames.generation;
     }
 
-    /**
-     * Add a nested child section.
-     */
-    void addChild(ProfilerSection child) {
-        children.add(child);
+    private ProfilerSection(ThreadFrames frames, int index) {
+        this(frames, index, -1, frames.name(index));
     }
 
     /**
@@ -43,10 +43,19 @@ public final class ProfilerSection implements AutoCloseable {
      */
     @Override
     public void close() {
-        if (closed) return;
-        markEnd();
-        closed = true;
-        Profiler.pop(this);
+        checkValid();
+        if (isClosed()) return;
+        // recorded frames know their index; views from getChildren() etc. do not know their depth
+        boolean top = index != -1 ? frames.top() == index : frames.depth() == depth + 1;
+        if (!top) {
+            String found = frames.topName();
+            throw new IllegalStateException(
+                    "Profiling sections must be closed in LIFO order. Expected "
+                            + getName() + " but found "
+                            + (found != null ? found : "none")
+            );
+        }
+        elapsed = frames.pop();
     }
 
     /**
@@ -60,16 +69,24 @@ public final class ProfilerSection implements AutoCloseable {
      * @return elapsed time in nanoseconds
      */
     public long getElapsedNanos() {
-        if (!closed) {
+        checkValid();
+        if (!isClosed()) {
             throw new IllegalStateException("Section has not been closed yet");
         }
-        return endTime - startTime;
+        return index == -1 ? elapsed : frames.ends[index] - frames.starts[index];
     }
 
     /**
      * @return unmodifiable view of children
      */
     public List<ProfilerSection> getChildren() {
+        checkValid();
+        if (index == -1) return List.of();
+        List<ProfilerSection> children = new ArrayList<>();
+        // frames are in start order, so the subtree ends at the first frame whose parent is outside it
+        for (int i = index + 1; i < frames.size && frames.parents[i] >= index; i++) {
+            if (frames.parents[i] == index) children.add(new ProfilerSection(frames, i));
+        }
         return Collections.unmodifiableList(children);
     }
 
@@ -77,12 +94,27 @@ public final class ProfilerSection implements AutoCloseable {
      * @return parent section, or null if root
      */
     public ProfilerSection getParent() {
-        return parent;
+        checkValid();
+        int parent = index == -1 ? -1 : frames.parents[index];
+        return parent == -1 ? null : new ProfilerSection(frames, parent);
     }
 
     @Override
     public String toString() {
-        long elapsed = closed ? getElapsedNanos() : (System.nanoTime() - startTime);
-        return String.format("%s: %.3f ms", name, elapsed / 1_000_000.0);
+        if (generation != frames.generation) return getName() + ": <reset>";
+        long ns;
+        if (index == -1) ns = isClosed() ? elapsed : -1;
+        else ns = (isClosed() ? frames.ends[index] : System.nanoTime()) - frames.starts[index];
+        return ns < 0 ? getName() + ": <open>" : String.format("%s: %.3f ms", getName(), ns / 1_000_000.0);
+    }
+
+    private boolean isClosed() {
+        return index == -1 ? elapsed != ThreadFrames.OPEN : frames.ends[index] != ThreadFrames.OPEN;
+    }
+
+    private void checkValid() {
+        if (generation != frames.generation) {
+            throw new IllegalStateException("Section was dropped by Profiler.reset()");
+        }
     }
 }
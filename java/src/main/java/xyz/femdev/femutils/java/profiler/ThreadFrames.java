@@ -0,0 +1,211 @@
+package xyz.femdev.femutils.java.profiler;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Profiling frames recorded by one thread, in start order, as parallel primitive arrays.
+ * <p>
+ * Only the owning thread writes to it. Arrays grow by doubling and are kept across
+ * {@link #clear()}, so a thread that is profiled repeatedly stops allocating once warmed up.
+ * In aggregate mode nothing is recorded; open sections are kept on the stack as
+ * {@link CallTree} nodes and merged into it when they close.
+ * </p>
+ * <p>
+ * Other threads may read the frames that were closed when the thread last left its outermost
+ * section through {@link #recorded()}, which retries if a {@link #clear()} got in the way.
+ * </p>
+ */
+final class ThreadFrames {
+
+    /** End time of a frame that is still open. */
+    static final long OPEN = Long.MIN_VALUE;
+    /** Key of a recorded frame whose name is stored in {@link #names} instead of a {@link ProfilerKey}. */
+    static final int UNNAMED = -1;
+
+    final ProfilerScope scope = new ProfilerScope(this);
+    final Thread thread;
+
+    int[] keys = new int[64];
+    // names of frames started with an unregistered name, whose key is UNNAMED
+    String[] names = new String[64];
+    int[] parents = new int[64];
+    long[] starts = new long[64];
+    long[] ends = new long[64];
+    int size;
+    // frames closed when depth last dropped to zero, readable from other threads
+    private volatile int published;
+
+    // frame index, or node in aggregate mode
+    private int[] stack = new int[16];
+    private long[] stackStarts = new long[16];
+    private int depth;
+
+    private boolean aggregate;
+    /** Mode of this thread set by {@link Profiler#setThreadMode}, or {@code null} to follow the global one. */
+    Profiler.Mode mode;
+    private volatile CallTree tree = new CallTree();
+
+    /** {@link Profiler} reset epoch this thread last saw. */
+    volatile int epoch;
+    /** Bumped on every {@link #clear()}, so views of dropped frames and readers on other threads can tell. */
+    volatile int generation;
+
+    ThreadFrames(Thread thread) {
+        this.thread = thread;
+    }
+
+    /**
+     * Opens a frame as a child of the innermost open frame.
+     *
+     * @return the frame index
+     */
+    int push(int key) {
+        return push(key, null);
+    }
+
+    /**
+     * Opens a frame for a name that is not a registered key. Recorded frames keep the name itself;
+     * aggregated ones need a key to merge by, so the name is registered.
+     *
+     * @return the frame index
+     */
+    int push(String name) {
+        return aggregate ? push(ProfilerKey.of(name).id(), null) : push(UNNAMED, name);
+    }
+
+    private int push(int key, String name) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+            stackStarts = Arrays.copyOf(stackStarts, depth * 2);
+        }
+        if (aggregate) {
+            int d = depth++;
+            stack[d] = tree.child(d == 0 ? -1 : stack[d - 1], key);
+            stackStarts[d] = System.nanoTime();
+            return -1;
+        }
+        if (size == keys.length) grow();
+        int i = size++;
+        keys[i] = key;
+        names[i] = name;
+        parents[i] = depth == 0 ? -1 : stack[depth - 1];
+        ends[i] = OPEN;
+        stack[depth++] = i;
+        // last, so the bookkeeping above is not timed
+        starts[i] = System.nanoTime();
+        return i;
+    }
+
+    /**
+     * Closes the innermost open frame.
+     *
+     * @return its elapsed time in nanoseconds
+     */
+    long pop() {
+        long now = System.nanoTime();
+        if (depth == 0) throw new IllegalStateException("No profiling section is open");
+        int i = stack[--depth];
+        if (aggregate) {
+            long elapsed = now - stackStarts[depth];
+            tree.record(i, elapsed);
+            return elapsed;
+        }
+        ends[i] = now;
+        if (depth == 0) published = size;
+        return now - starts[i];
+    }
+
+    /**
+     * @return the index of the innermost open frame, or {@code -1} if none is open or in aggregate mode
+     */
+    int top() {
+        return depth == 0 || aggregate ? -1 : stack[depth - 1];
+    }
+
+    /**
+     * @return the name of the innermost open frame, or {@code null}
+     */
+    String topName() {
+        if (depth == 0) return null;
+        int i = stack[depth - 1];
+        return aggregate ? ProfilerKey.byId(tree.key(i)).name() : name(i);
+    }
+
+    /**
+     * @return the name of a recorded frame
+     */
+    String name(int frame) {
+        int key = keys[frame];
+        return key == UNNAMED ? names[frame] : ProfilerKey.byId(key).name();
+    }
+
+    boolean aggregate() {
+        return aggregate;
+    }
+
+    /**
+     * Switches between recording and aggregating; only while no frame is open.
+     */
+    void aggregate(boolean aggregate) {
+        this.aggregate = aggregate;
+    }
+
+    CallTree tree() {
+        return tree;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    void clear() {
+        clearRecorded();
+        depth = 0;
+        if (tree.size() > 0) tree = new CallTree();
+    }
+
+    private void clearRecorded() {
+        published = 0;
+        generation++;
+        // frames may only be overwritten once readers can see the new generation
+        VarHandle.storeStoreFence();
+        size = 0;
+    }
+
+    /**
+     * Builds report sections of the recorded frames that were closed when the thread last left its
+     * outermost section. Safe to call from any thread.
+     */
+    List<ProfilerReportSection> recorded() {
+        FrameBuffer copy = new FrameBuffer();
+        while (true) {
+            int g = generation;
+            int n = published;
+            // published frames are never written again until the next clear, and arrays only grow
+            copy.copy(keys, names, parents, starts, ends, n);
+            VarHandle.acquireFence();
+            if (generation == g) return copy.sections();
+        }
+    }
+
+    /**
+     * Moves the recorded frames into a buffer and clears them; owner thread only, with no open frame.
+     *
+     * @param into the buffer to fill, or {@code null} to drop the frames
+     */
+    void drain(FrameBuffer into) {
+        if (into != null) into.copy(keys, names, parents, starts, ends, size);
+        clearRecorded();
+    }
+
+    private void grow() {
+        int n = keys.length * 2;
+        keys = Arrays.copyOf(keys, n);
+        names = Arrays.copyOf(names, n);
+        parents = Arrays.copyOf(parents, n);
+        starts = Arrays.copyOf(starts, n);
+        ends = Arrays.copyOf(ends, n);
+    }
+}
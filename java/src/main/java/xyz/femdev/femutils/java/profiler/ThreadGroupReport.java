@@ -0,0 +1,33 @@
+package xyz.femdev.femutils.java.profiler;
+
+import java.util.List;
+
+/**
+ * Sections of one thread or thread pool in a {@link ProfilerReport#captureAll()} report.
+ * <p>
+ * Threads whose names only differ in a trailing number, such as {@code "Craft Scheduler Thread - 3"}
+ * and {@code "Craft Scheduler Thread - 7"}, form one group. Aggregated sections of the group are
+ * merged by call path; recorded sections are listed thread by thread.
+ * </p>
+ *
+ * @param name    group name, the thread name without its trailing number
+ * @param threads names of the threads in the group
+ * @param roots   root sections of the group
+ */
+public record ThreadGroupReport(String name, List<String> threads, List<ProfilerReportSection> roots) {
+
+    /**
+     * @return the group name of a thread, e.g. {@code "pool-2-thread"} for {@code "pool-2-thread-14"}
+     */
+    public static String groupName(String threadName) {
+        int end = threadName.length();
+        while (end > 0 && Character.isDigit(threadName.charAt(end - 1))) end--;
+        if (end == threadName.length()) return threadName;
+        while (end > 0 && isSeparator(threadName.charAt(end - 1))) end--;
+        return end == 0 ? threadName : threadName.substring(0, end);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '-' || c == '_' || c == '#' || c == ' ' || c == '.';
+    }
+}
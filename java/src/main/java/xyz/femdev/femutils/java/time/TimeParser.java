@@ -3,24 +3,52 @@ package xyz.femdev.femutils.java.time;
 import xyz.femdev.femutils.java.core.Result;
 
 import java.time.Duration;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A utility class for parsing human-readable duration strings into {@link Duration} objects.
  * <p>
  * Supported time units:
  * <ul>
+ *     <li><code>ms</code> - milliseconds</li>
+ *     <li><code>t</code> - ticks (50 ms)</li>
  *     <li><code>s</code> - seconds</li>
  *     <li><code>m</code> - minutes</li>
  *     <li><code>h</code> - hours</li>
  *     <li><code>d</code> - days</li>
  *     <li><code>w</code> - weeks</li>
+ *     <li><code>mo</code> - months (30 days)</li>
+ *     <li><code>y</code> - years (365 days)</li>
  * </ul>
  * Example: {@code "5m30s"} will be parsed into a duration of 5 minutes and 30 seconds.
+ * Units are case-insensitive, values may have decimals ({@code "1.5h"}) and tokens may be
+ * separated by spaces ({@code "1h 30m"}).
+ * </p>
+ * <p>
+ * {@link #parseMillis} and {@link #parseTicks} scan the input in place and return a primitive,
+ * so they can run on every command or tab completion without allocating.
+ * </p>
  */
 public final class TimeParser {
-    private static final Pattern P = Pattern.compile("(\\d+)([smhdw])", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Returned by {@link #parseMillis} and {@link #parseTicks} for malformed or overflowing input.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long OVERFLOW = Long.MIN_VALUE + 1;
+    /** Fraction digits beyond this are below a millisecond for every unit and are ignored. */
+    private static final int MAX_FRACTION_DIGITS = 6;
+    private static final long[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private static final long MS = 1;
+    private static final long TICK = 50;
+    private static final long SECOND = 1_000;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    private static final long WEEK = 7 * DAY;
+    private static final long MONTH = 30 * DAY;
+    private static final long YEAR = 365 * DAY;
 
     private TimeParser() {
     }
@@ -33,20 +61,116 @@ public final class TimeParser {
      * @return a {@code Result} containing the {@link Duration} if parsing succeeds, or an error {@code String} if it fails.
      */
     public static Result<Duration, String> parse(String input) {
-        Matcher m = P.matcher(input);
-        if (!m.find()) return Result.err("Invalid duration: " + input);
-        m.reset();
-        long seconds = 0;
-        while (m.find()) {
-            long n = Long.parseLong(m.group(1));
-            switch (m.group(2).toLowerCase()) {
-                case "s" -> seconds += n;
-                case "m" -> seconds += n * 60;
-                case "h" -> seconds += n * 3600;
-                case "d" -> seconds += n * 86400;
-                case "w" -> seconds += n * 604800;
+        long millis = scan(input);
+        if (millis == OVERFLOW) return Result.err("Duration too long: " + input);
+        if (millis == INVALID) return Result.err("Invalid duration: " + input);
+        return Result.ok(Duration.ofMillis(millis));
+    }
+
+    /**
+     * Parses a time string into milliseconds.
+     *
+     * @param input the duration string to parse
+     * @return the duration in milliseconds, or {@link #INVALID}
+     */
+    public static long parseMillis(CharSequence input) {
+        long millis = scan(input);
+        return millis == OVERFLOW ? INVALID : millis;
+    }
+
+    /**
+     * Parses a time string into server ticks, rounding down.
+     *
+     * @param input the duration string to parse
+     * @return the duration in ticks, or {@link #INVALID}
+     */
+    public static long parseTicks(CharSequence input) {
+        long millis = parseMillis(input);
+        return millis == INVALID ? INVALID : millis / TICK;
+    }
+
+    /**
+     * @return the sum of all tokens in milliseconds, {@link #INVALID} or {@link #OVERFLOW}
+     */
+    private static long scan(CharSequence s) {
+        int len = s.length();
+        int i = skipSpaces(s, 0);
+        if (i == len) return INVALID;
+
+        long total = 0;
+        while (i < len) {
+            long whole = 0;
+            int start = i;
+            char c;
+            while (i < len && (c = s.charAt(i)) >= '0' && c <= '9') {
+                int d = c - '0';
+                if (whole > (Long.MAX_VALUE - d) / 10) return OVERFLOW;
+                whole = whole * 10 + d;
+                i++;
+            }
+            boolean hasWhole = i > start;
+
+            long fraction = 0;
+            int fractionDigits = 0;
+            if (i < len && s.charAt(i) == '.') {
+                i++;
+                int fractionStart = i;
+                while (i < len && (c = s.charAt(i)) >= '0' && c <= '9') {
+                    if (fractionDigits < MAX_FRACTION_DIGITS) {
+                        fraction = fraction * 10 + (c - '0');
+                        fractionDigits++;
+                    }
+                    i++;
+                }
+                if (i == fractionStart) return INVALID;
+            } else if (!hasWhole) {
+                return INVALID;
             }
+
+            if (i == len) return INVALID;
+            long unit;
+            switch (s.charAt(i++) | 0x20) {
+                case 't' -> unit = TICK;
+                case 's' -> unit = SECOND;
+                case 'h' -> unit = HOUR;
+                case 'd' -> unit = DAY;
+                case 'w' -> unit = WEEK;
+                case 'y' -> unit = YEAR;
+                case 'm' -> {
+                    int next = i < len ? s.charAt(i) | 0x20 : 0;
+                    if (next == 's') {
+                        unit = MS;
+                        i++;
+                    } else if (next == 'o') {
+                        unit = MONTH;
+                        i++;
+                    } else {
+                        unit = MINUTE;
+                    }
+                }
+                default -> {
+                    return INVALID;
+                }
+            }
+
+            if (whole > Long.MAX_VALUE / unit) return OVERFLOW;
+            long part = whole * unit + fraction * unit / POW10[fractionDigits];
+            if (part < 0 || total > Long.MAX_VALUE - part) return OVERFLOW;
+            total += part;
+
+            i = skipSpaces(s, i);
+            // a letter right after a unit, e.g. "5min", is not a known unit
+            if (i < len && !isTokenStart(s.charAt(i))) return INVALID;
         }
-        return Result.ok(Duration.ofSeconds(seconds));
+        return total;
+    }
+
+    private static int skipSpaces(CharSequence s, int i) {
+        while (i < s.length() && s.charAt(i) == ' ') i++;
+        return i;
+    }
+
+    private static boolean isTokenStart(char c) {
+        return (c >= '0' && c <= '9') || c == '.';
     }
 }
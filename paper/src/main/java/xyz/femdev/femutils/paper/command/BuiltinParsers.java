@@ -2,14 +2,22 @@ package xyz.femdev.femutils.paper.command;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Sound;
 import org.bukkit.World;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
+import org.bukkit.potion.PotionEffectType;
+import xyz.femdev.femutils.java.core.NameIndex;
 import xyz.femdev.femutils.java.core.Result;
 import xyz.femdev.femutils.java.time.TimeParser;
+import xyz.femdev.femutils.paper.registry.RegistryIndexes;
 
 import java.time.Duration;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Common {@link ArgParser} implementations for basic Bukkit and Java types.
@@ -78,6 +86,23 @@ public final class BuiltinParsers {
                 : Result.ok(p);
     };
 
+    public static final ArgParser<Material> MATERIAL = keyed(RegistryIndexes::materials, "material");
+
+    public static final ArgParser<Sound> SOUND = keyed(RegistryIndexes::sounds, "sound");
+
+    public static final ArgParser<Enchantment> ENCHANTMENT = keyed(RegistryIndexes::enchantments, "enchantment");
+
+    public static final ArgParser<PotionEffectType> POTION_EFFECT = keyed(RegistryIndexes::potionEffects, "potion effect");
+
+    public static final ArgParser<EntityType> ENTITY_TYPE = keyed(RegistryIndexes::entityTypes, "entity type");
+
     private BuiltinParsers() {
     }
+
+    private static <T> ArgParser<T> keyed(Supplier<NameIndex<T>> index, String what) {
+        return (s, c) -> {
+            T value = index.get().get(s);
+            return value == null ? Result.err("Unknown " + what + ": " + s) : Result.ok(value);
+        };
+    }
 }
@@ -2,6 +2,7 @@ package xyz.femdev.femutils.paper.command;
 
 import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
+import xyz.femdev.femutils.paper.registry.RegistryIndexes;
 
 import java.util.HashMap;
 import java.util.List;
@@ -17,6 +18,7 @@ public final class FemCommandManager {
 
     public FemCommandManager(JavaPlugin plugin) {
         this.plugin = plugin;
+        RegistryIndexes.refreshOnReload(plugin);
     }
 
     /**
@@ -0,0 +1,69 @@
+package xyz.femdev.femutils.paper.config;
+
+import xyz.femdev.femutils.java.config.ConfigHandle;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Result of {@link PaperConfigs#createAll}: the handles that loaded and the failures per file.
+ */
+public final class ConfigBatch {
+
+    private final Map<ConfigSpec<?>, ConfigHandle<?>> handles;
+    private final Map<ConfigSpec<?>, Throwable> failures;
+
+    ConfigBatch(Map<ConfigSpec<?>, ConfigHandle<?>> handles, Map<ConfigSpec<?>, Throwable> failures) {
+        this.handles = Collections.unmodifiableMap(handles);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return the handle for the given spec
+     * @throws IllegalStateException if that file failed to load
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ConfigHandle<T> get(ConfigSpec<T> spec) {
+        ConfigHandle<?> handle = handles.get(spec);
+        if (handle == null) {
+            Throwable failure = failures.get(spec);
+            throw new IllegalStateException("Config " + spec.fileName() + " was not loaded", failure);
+        }
+        return (ConfigHandle<T>) handle;
+    }
+
+    /**
+     * @return all loaded handles, in spec order
+     */
+    public Map<ConfigSpec<?>, ConfigHandle<?>> handles() {
+        return handles;
+    }
+
+    /**
+     * @return the error of every file that failed to load, in spec order
+     */
+    public Map<ConfigSpec<?>, Throwable> failures() {
+        return failures;
+    }
+
+    /**
+     * @return {@code true} if every file loaded
+     */
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Throws if any file failed to load, with every failure attached.
+     *
+     * @return this batch
+     */
+    public ConfigBatch orThrow() throws IOException {
+        if (failures.isEmpty()) return this;
+        IOException e = new IOException("Failed to load " + failures.size() + " config file(s): "
+                + failures.keySet().stream().map(ConfigSpec::fileName).toList());
+        failures.values().forEach(e::addSuppressed);
+        throw e;
+    }
+}
@@ -0,0 +1,53 @@
+package xyz.femdev.femutils.paper.config;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Describes one config file for {@link PaperConfigs#createAll}.
+ *
+ * @param fileName config file name (relative to plugin folder)
+ * @param type     class of the config model
+ * @param defaults supplier for default instance
+ * @param format   file format and engine to load it with
+ * @param <T>      the config data type
+ */
+public record ConfigSpec<T>(String fileName, Class<T> type, Supplier<T> defaults, Format format) {
+
+    public ConfigSpec {
+        Objects.requireNonNull(fileName, "fileName");
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(defaults, "defaults");
+        Objects.requireNonNull(format, "format");
+    }
+
+    /**
+     * A YAML config, as loaded by {@link PaperConfigs#create}.
+     */
+    public static <T> ConfigSpec<T> yaml(String fileName, Class<T> type, Supplier<T> defaults) {
+        return new ConfigSpec<>(fileName, type, defaults, Format.YAML);
+    }
+
+    /**
+     * A JSON data file, as loaded by {@link PaperConfigs#createJson}.
+     */
+    public static <T> ConfigSpec<T> json(String fileName, Class<T> type, Supplier<T> defaults) {
+        return new ConfigSpec<>(fileName, type, defaults, Format.JSON);
+    }
+
+    /**
+     * A YAML config with a binary snapshot, as loaded by {@link PaperConfigs#createSnapshotted}.
+     */
+    public static <T> ConfigSpec<T> snapshotted(String fileName, Class<T> type, Supplier<T> defaults) {
+        return new ConfigSpec<>(fileName, type, defaults, Format.YAML_SNAPSHOT);
+    }
+
+    /**
+     * Supported file formats.
+     */
+    public enum Format {
+        YAML,
+        JSON,
+        YAML_SNAPSHOT
+    }
+}
@@ -1,23 +1,40 @@
 package xyz.femdev.femutils.paper.config;
 
 import org.bukkit.plugin.java.JavaPlugin;
+import xyz.femdev.femutils.java.config.ConfigDirectory;
+import xyz.femdev.femutils.java.config.ConfigExecutors;
 import xyz.femdev.femutils.java.config.ConfigHandle;
+import xyz.femdev.femutils.java.config.ConfigWatcher;
+import xyz.femdev.femutils.java.config.JsonEngine;
+import xyz.femdev.femutils.java.config.SnapshotEngine;
 import xyz.femdev.femutils.java.config.TypeRegistry;
+import xyz.femdev.femutils.paper.registry.RegistryIndexes;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
+import java.util.logging.Level;
 
 /**
  * Utility for managing plugin configuration files.
  */
-public final class PaperConfigs {
+public final class PaperConfigs implements AutoCloseable {
     private final JavaPlugin plugin;
     private final TypeRegistry registry = new TypeRegistry();
     private final SimpleYamlEngine engine;
+    private final JsonEngine jsonEngine;
+    private final SnapshotEngine snapshotEngine;
+    private ConfigWatcher watcher;
 
     /**
      * @param plugin the plugin using this config system
@@ -25,7 +42,10 @@ public final class PaperConfigs {
     public PaperConfigs(JavaPlugin plugin) {
         this.plugin = Objects.requireNonNull(plugin, "plugin");
         PaperSerializers.registerAll(registry);
+        RegistryIndexes.refreshOnReload(plugin);
         this.engine = new SimpleYamlEngine(registry);
+        this.jsonEngine = new JsonEngine(registry);
+        this.snapshotEngine = new SnapshotEngine(engine, registry);
     }
 
     /**
@@ -44,6 +64,89 @@ public final class PaperConfigs {
      * @param defaults supplier for default instance
      */
     public <T> ConfigHandle<T> create(String fileName, Class<T> type, Supplier<T> defaults) throws IOException {
+        return create(fileName, type, defaults, engine);
+    }
+
+    /**
+     * Creates and loads a JSON data file with the given path and type, using the same serializers as YAML configs.
+     * If the file does not exist, default values will be saved.
+     *
+     * @param fileName data file name (relative to plugin folder)
+     * @param type     class of the data model
+     * @param defaults supplier for default instance
+     */
+    public <T> ConfigHandle<T> createJson(String fileName, Class<T> type, Supplier<T> defaults) throws IOException {
+        return create(fileName, type, defaults, jsonEngine);
+    }
+
+    /**
+     * Creates and loads a YAML config like {@link #create}, but keeps a binary snapshot of the decoded
+     * config next to the file so unchanged configs skip YAML parsing on the next start.
+     *
+     * @param fileName config file name (relative to plugin folder)
+     * @param type     class of the config model
+     * @param defaults supplier for default instance
+     */
+    public <T> ConfigHandle<T> createSnapshotted(String fileName, Class<T> type, Supplier<T> defaults) throws IOException {
+        return create(fileName, type, defaults, snapshotEngine);
+    }
+
+    /**
+     * Loads a folder of YAML files of the same type, one entry per {@code .yml} file, in parallel.
+     * The folder is created if it does not exist.
+     *
+     * @param folderName folder name (relative to plugin folder)
+     * @param type       class of the config model of every file
+     */
+    public <T> ConfigDirectory<T> createDirectory(String folderName, Class<T> type) throws IOException {
+        return new ConfigDirectory<>(plugin.getDataFolder().toPath().resolve(folderName), ".yml", type, engine);
+    }
+
+    /**
+     * Creates and loads several config files concurrently on a pool bounded by the number of CPUs.
+     * A file that fails to load does not stop the others; check {@link ConfigBatch#failures()}
+     * or call {@link ConfigBatch#orThrow()}. Serializers in {@link #registry()} must be thread-safe.
+     *
+     * @param specs the files to load
+     * @return the loaded handles, once every file has been attempted
+     */
+    public ConfigBatch createAll(ConfigSpec<?>... specs) {
+        Map<ConfigSpec<?>, ConfigHandle<?>> handles = new LinkedHashMap<>();
+        Map<ConfigSpec<?>, Throwable> failures = new LinkedHashMap<>();
+        if (specs.length == 0) return new ConfigBatch(handles, failures);
+
+        ExecutorService pool = ConfigExecutors.loadPool(specs.length);
+        try {
+            List<Future<ConfigHandle<?>>> futures = new ArrayList<>(specs.length);
+            for (ConfigSpec<?> spec : specs) futures.add(pool.submit(() -> create(spec)));
+            for (int i = 0; i < specs.length; i++) {
+                try {
+                    handles.put(specs[i], futures.get(i).get());
+                } catch (ExecutionException e) {
+                    failures.put(specs[i], e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    for (int j = i; j < specs.length; j++) failures.put(specs[j], e);
+                    break;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new ConfigBatch(handles, failures);
+    }
+
+    private <T> ConfigHandle<T> create(ConfigSpec<T> spec) throws IOException {
+        ConfigHandle.Engine engine = switch (spec.format()) {
+            case YAML -> this.engine;
+            case JSON -> jsonEngine;
+            case YAML_SNAPSHOT -> snapshotEngine;
+        };
+        return create(spec.fileName(), spec.type(), spec.defaults(), engine);
+    }
+
+    private <T> ConfigHandle<T> create(String fileName, Class<T> type, Supplier<T> defaults,
+                                       ConfigHandle.Engine engine) throws IOException {
         Path path = plugin.getDataFolder().toPath().resolve(fileName);
         if (Files.notExists(path)) {
             plugin.getDataFolder().mkdirs();
@@ -53,4 +156,29 @@ public final class PaperConfigs {
         }
         return new ConfigHandle<>(path, type, defaults, engine);
     }
+
+    /**
+     * Reloads the given config automatically whenever its file is edited.
+     * Parsing happens off the main thread; reload listeners run on the main thread.
+     *
+     * @param handle a handle created by this instance
+     */
+    public synchronized void watch(ConfigHandle<?> handle) throws IOException {
+        if (watcher == null) {
+            watcher = new ConfigWatcher().onError(t ->
+                    plugin.getLogger().log(Level.WARNING, "Failed to reload config", t));
+        }
+        watcher.watch(handle, r -> plugin.getServer().getScheduler().runTask(plugin, r));
+    }
+
+    /**
+     * Stops watching all files. Call this from {@code onDisable}.
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
 }
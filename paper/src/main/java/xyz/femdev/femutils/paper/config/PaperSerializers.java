@@ -3,25 +3,35 @@ package xyz.femdev.femutils.paper.config;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.*;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.EntityType;
+import org.bukkit.potion.PotionEffectType;
+import xyz.femdev.femutils.java.config.CachingSerializer;
 import xyz.femdev.femutils.java.config.ReflectMapper;
 import xyz.femdev.femutils.java.config.TypeRegistry;
 import xyz.femdev.femutils.java.config.TypeSerializer;
+import xyz.femdev.femutils.java.core.NameIndex;
+import xyz.femdev.femutils.java.time.TimeParser;
+import xyz.femdev.femutils.paper.registry.RegistryIndexes;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * Built-in type serializers for common Bukkit/Adventure types used in configs.
+ * <p>
+ * Serializers of immutable, frequently repeated values are {@link CachingSerializer}s. They are
+ * static, so every {@link PaperConfigs} shares their caches; see {@link #cacheStats()}.
+ * </p>
  */
 public final class PaperSerializers {
 
-    public static final TypeSerializer<UUID> UUID_SER = new TypeSerializer<>() {
+    public static final TypeSerializer<UUID> UUID_SER = CachingSerializer.of(new TypeSerializer<>() {
         @Override
         public UUID deserialize(Object raw, ReflectMapper ctx, Class<UUID> type) {
             return raw == null ? null : UUID.fromString(raw.toString());
@@ -31,7 +41,7 @@ public final class PaperSerializers {
         public Object serialize(UUID value, ReflectMapper ctx) {
             return value.toString();
         }
-    };
+    }, 1024);
 
     public static final TypeSerializer<Color> COLOR = new TypeSerializer<>() {
         @Override
@@ -55,19 +65,18 @@ public final class PaperSerializers {
         }
     };
 
-    public static final TypeSerializer<NamespacedKey> SOUND_KEY = new TypeSerializer<>() {
+    public static final TypeSerializer<NamespacedKey> SOUND_KEY = CachingSerializer.of(new TypeSerializer<>() {
         @Override
         public NamespacedKey deserialize(Object raw, ReflectMapper ctx, Class<NamespacedKey> type) {
-            if (raw == null) return null;
-            String s = raw.toString();
-            return NamespacedKey.fromString(s.contains(":") ? s : "minecraft:" + s);
+            // keys without a namespace default to minecraft
+            return raw == null ? null : NamespacedKey.fromString(raw.toString());
         }
 
         @Override
         public Object serialize(NamespacedKey value, ReflectMapper ctx) {
             return value.asString();
         }
-    };
+    }, 1024);
 
     public static final TypeSerializer<Location> LOCATION = new TypeSerializer<>() {
         @Override
@@ -104,20 +113,17 @@ public final class PaperSerializers {
         }
     };
 
-    public static final TypeSerializer<Material> MATERIAL = new TypeSerializer<>() {
-        @Override
-        public Material deserialize(Object raw, ReflectMapper ctx, Class<Material> type) {
-            return raw == null ? null : Material.matchMaterial(raw.toString());
-        }
-
-        @Override
-        public Object serialize(Material value, ReflectMapper ctx) {
-            return value.getKey().asString();
-        }
-    };
+    public static final TypeSerializer<Material> MATERIAL = keyed(RegistryIndexes::materials);
+    public static final TypeSerializer<Sound> SOUND = keyed(RegistryIndexes::sounds);
+    public static final TypeSerializer<Enchantment> ENCHANTMENT = keyed(RegistryIndexes::enchantments);
+    public static final TypeSerializer<PotionEffectType> POTION_EFFECT = keyed(RegistryIndexes::potionEffects);
+    public static final TypeSerializer<EntityType> ENTITY_TYPE = keyed(RegistryIndexes::entityTypes);
 
     private static final MiniMessage MM = MiniMessage.miniMessage();
-    public static final TypeSerializer<Component> COMPONENT = new TypeSerializer<>() {
+    /**
+     * MiniMessage components; parsed strings are memoized since lore lines repeat across many items.
+     */
+    public static final TypeSerializer<Component> COMPONENT = CachingSerializer.of(new TypeSerializer<>() {
         @Override
         public Component deserialize(Object raw, ReflectMapper ctx, Class<Component> type) {
             return raw == null ? Component.empty() : MM.deserialize(raw.toString());
@@ -127,35 +133,23 @@ public final class PaperSerializers {
         public Object serialize(Component value, ReflectMapper ctx) {
             return MM.serialize(value);
         }
-    };
+    }, 4096);
 
-    private static final Pattern DUR = Pattern.compile("(\\d+)([smhdw])", Pattern.CASE_INSENSITIVE);
     public static final TypeSerializer<Duration> DURATION = new TypeSerializer<>() {
         @Override
         public Duration deserialize(Object raw, ReflectMapper ctx, Class<Duration> type) {
             if (raw == null) return Duration.ZERO;
             if (raw instanceof Number n) return Duration.ofSeconds(n.longValue());
-            Matcher m = DUR.matcher(raw.toString().trim());
-            if (!m.find()) throw new IllegalArgumentException("Bad duration: " + raw);
-            m.reset();
-            long secs = 0;
-            while (m.find()) {
-                long n = Long.parseLong(m.group(1));
-                secs += switch (m.group(2).toLowerCase()) {
-                    case "s" -> n;
-                    case "m" -> n * 60;
-                    case "h" -> n * 3600;
-                    case "d" -> n * 86400;
-                    case "w" -> n * 604800;
-                    default -> 0;
-                };
-            }
-            return Duration.ofSeconds(secs);
+            long millis = TimeParser.parseMillis(raw instanceof CharSequence cs ? cs : raw.toString());
+            if (millis == TimeParser.INVALID) throw new IllegalArgumentException("Bad duration: " + raw);
+            return Duration.ofMillis(millis);
         }
 
         @Override
         public Object serialize(Duration value, ReflectMapper ctx) {
-            long secs = value.getSeconds();
+            long millis = value.toMillis();
+            if (millis % 1000 != 0) return millis + "ms";
+            long secs = millis / 1000;
             return (secs % 60 == 0) ? (secs / 60) + "m" : secs + "s";
         }
     };
@@ -174,17 +168,58 @@ public final class PaperSerializers {
         reg.register(NamespacedKey.class, SOUND_KEY);
         reg.register(Location.class, LOCATION);
         reg.register(Material.class, MATERIAL);
+        reg.register(Sound.class, SOUND);
+        reg.register(Enchantment.class, ENCHANTMENT);
+        reg.register(PotionEffectType.class, POTION_EFFECT);
+        reg.register(EntityType.class, ENTITY_TYPE);
+    }
+
+    /**
+     * @return hit/miss statistics of the memoizing serializers, by name
+     */
+    public static Map<String, CachingSerializer.Stats> cacheStats() {
+        return Map.of(
+                "component", stats(COMPONENT),
+                "namespaced_key", stats(SOUND_KEY),
+                "uuid", stats(UUID_SER)
+        );
+    }
+
+    private static CachingSerializer.Stats stats(TypeSerializer<?> serializer) {
+        return ((CachingSerializer<?>) serializer).stats();
     }
 
     /**
-     * Parses a list of {@link Material}s from a raw list.
+     * Parses a list of {@link Material}s from a raw list, skipping unknown names.
      */
     public static List<Material> materialList(Object raw) {
         if (raw == null) return List.of();
         if (!(raw instanceof List<?> list)) throw new IllegalArgumentException("Expected list");
-        return list.stream()
-                .map(o -> Material.matchMaterial(o.toString()))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        NameIndex<Material> index = RegistryIndexes.materials();
+        List<Material> out = new ArrayList<>(list.size());
+        for (Object o : list) {
+            Material m = o == null ? null : index.get(o instanceof CharSequence cs ? cs : o.toString());
+            if (m != null) out.add(m);
+        }
+        return out;
+    }
+
+    /**
+     * Serializer for registry values that looks names up in a prebuilt {@link RegistryIndexes} index.
+     * Unknown names decode to {@code null}.
+     */
+    private static <T extends Keyed> TypeSerializer<T> keyed(Supplier<NameIndex<T>> index) {
+        return new TypeSerializer<>() {
+            @Override
+            public T deserialize(Object raw, ReflectMapper ctx, Class<T> type) {
+                if (raw == null) return null;
+                return index.get().get(raw instanceof CharSequence cs ? cs : raw.toString());
+            }
+
+            @Override
+            public Object serialize(T value, ReflectMapper ctx) {
+                return value.getKey().asString();
+            }
+        };
     }
 }
@@ -1,24 +1,37 @@
 package xyz.femdev.femutils.paper.config;
 
+import org.simpleyaml.configuration.ConfigurationSection;
 import org.simpleyaml.configuration.file.YamlFile;
 import xyz.femdev.femutils.java.config.*;
 
 import java.io.IOException;
-import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.Modifier;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Config engine that reads and writes YAML using SimpleYAML and {@link ReflectMapper}.
  * Supports records, POJOs, and serializer injection.
+ * Files are replaced atomically through {@link AtomicFiles}.
+ * <p>
+ * The parsed document of every loaded file is kept, so saves only set the paths that changed
+ * and never re-parse the file just to recover its comments. Documents are softly referenced, so
+ * they are dropped under memory pressure and simply re-read by the next save.
+ * </p>
  */
 public final class SimpleYamlEngine implements ConfigHandle.Engine {
 
     private final ReflectMapper mapper;
     private final TypeRegistry registry;
+    private final Map<Path, Retained> documents = new ConcurrentHashMap<>();
 
     /**
      * @param registry type registry for custom serializers
@@ -33,78 +46,169 @@ public final class SimpleYamlEngine implements ConfigHandle.Engine {
         YamlFile yaml = new YamlFile(path.toFile());
 
         if (Files.notExists(path)) {
-            Files.createDirectories(path.getParent());
-            yaml.createNewFile(true);
             T def = defaults.get();
             writeObject(yaml, "", def, type);
-            yaml.save();
+            AtomicFiles.writeString(path, yaml.saveToString());
+            retain(path, yaml);
             return def;
         }
 
-        try {
-            yaml.load();
-        } catch (Exception e) {
-            throw new IOException("Failed to load YAML " + path + ": " + e.getMessage(), e);
-        }
-
-        var section = yaml.getConfigurationSection("");
-        Object tree = section != null ? section.getMapValues(false) : new LinkedHashMap<>();
+        String original = Files.readString(path);
+        Object tree = parse(yaml, path, original);
         T result = mapper.toObject(tree, type);
-        writeObject(yaml, "", result, type);
-        yaml.save();
+        // only touch the file when defaults were filled in or values were normalized
+        if (writeObject(yaml, "", result, type)) {
+            String updated = yaml.saveToString();
+            if (!updated.equals(original)) {
+                AtomicFiles.writeString(path, updated);
+            }
+        }
+        retain(path, yaml);
         return result;
     }
 
+    @Override
+    public Object readTree(Path path) throws IOException {
+        if (Files.notExists(path)) return new LinkedHashMap<>();
+        return parse(new YamlFile(path.toFile()), path, Files.readString(path));
+    }
+
+    @Override
+    public Object decode(Object tree, Type type) {
+        return mapper.toObject(tree, type);
+    }
+
+    /**
+     * Saves a value into the document retained from the last load or save of this file, so comments
+     * are kept without re-reading it. Only paths whose value differs are set, and the file is not
+     * written at all if nothing did. A file edited by someone else since is re-read first.
+     */
     @Override
     public void save(Path path, Object value) throws IOException {
-        YamlFile yaml = new YamlFile(path.toFile());
+        Retained retained = documents.get(path);
+        YamlFile yaml = retained != null ? retained.yaml().get() : null;
+        if (yaml == null || !retained.stamp().equals(FileStamp.read(path))) {
+            yaml = new YamlFile(path.toFile());
+            try {
+                yaml.load();
+            } catch (Exception ignored) {
+            }
+        }
+        synchronized (yaml) {
+            if (writeObject(yaml, "", value, value.getClass()) || Files.notExists(path)) {
+                AtomicFiles.writeString(path, yaml.saveToString());
+            }
+            retain(path, yaml);
+        }
+    }
+
+    private void retain(Path path, YamlFile yaml) throws IOException {
+        FileStamp stamp = FileStamp.read(path);
+        if (stamp != null) documents.put(path, new Retained(new SoftReference<>(yaml), stamp));
+        // drop entries whose document was collected
+        documents.values().removeIf(r -> r.yaml().get() == null);
+    }
+
+    private Object parse(YamlFile yaml, Path path, String content) throws IOException {
         try {
-            yaml.load();
-        } catch (Exception ignored) {
+            yaml.loadFromString(content);
+        } catch (Exception e) {
+            throw new IOException("Failed to load YAML " + path + ": " + e.getMessage(), e);
         }
-        writeObject(yaml, "", value, value.getClass());
-        yaml.save();
+        var section = yaml.getConfigurationSection("");
+        return section != null ? section.getMapValues(false) : new LinkedHashMap<>();
     }
 
-    private void writeObject(YamlFile yaml, String basePath, Object obj, Class<?> type) {
-        if (obj == null) return;
+    /**
+     * @return {@code true} if any value, comment or header in the document changed
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean writeObject(YamlFile yaml, String basePath, Object obj, Class<?> type) {
+        if (obj == null) return false;
+
+        boolean changed = false;
+        TypeSerializer<?> ser = registry.find(type);
+        if (ser instanceof GeneratedCodec codec) {
+            // compile-time metadata, no annotation scanning or reflective access
+            if (basePath.isEmpty() && codec.header() != null) changed = header(yaml, codec.header());
+            List<GeneratedCodec.Property> props = codec.properties();
+            for (int i = 0; i < props.size(); i++) {
+                GeneratedCodec.Property prop = props.get(i);
+                String path = concat(basePath, prop.name());
+                changed |= commentIfPresent(yaml, path, prop.comment());
+                changed |= writeObject(yaml, path, codec.get(obj, i), prop.type());
+            }
+            return changed;
+        }
 
         if (basePath.isEmpty() && type.isAnnotationPresent(Header.class)) {
-            yaml.setHeader(String.join("\n", type.getAnnotation(Header.class).value()));
+            changed = header(yaml, type.getAnnotation(Header.class).value());
         }
 
-        if (registry.find(type) != null) {
-            yaml.set(basePath, mapper.toTree(obj));
-            return;
+        if (ser != null) return set(yaml, basePath, mapper.toTree(obj)) | changed;
+        if (obj instanceof Enum<?> e) return set(yaml, basePath, e.name()) | changed;
+        if (isLeafType(type)) return set(yaml, basePath, obj) | changed;
+        if (obj instanceof Collection<?> || obj instanceof Map<?, ?> || obj.getClass().isArray()) {
+            return set(yaml, basePath, mapper.toTree(obj)) | changed;
         }
 
-        if (isLeafType(type)) {
-            yaml.set(basePath, obj);
-            return;
+        for (var prop : ClassCodec.of(type).properties()) {
+            String path = concat(basePath, prop.name());
+            changed |= commentIfPresent(yaml, path, prop.comment());
+            changed |= writeObject(yaml, path, prop.get(obj), prop.type());
         }
+        return changed;
+    }
 
-        if (type.isRecord()) {
-            for (var rc : type.getRecordComponents()) {
-                Object val = getValue(rc, obj);
-                String path = concat(basePath, rc.getName());
-                commentIfPresent(yaml, path, rc);
-                writeObject(yaml, path, val, rc.getType());
+    private boolean set(YamlFile yaml, String path, Object value) {
+        if (sameValue(yaml.get(path), value)) return false;
+        yaml.set(path, value);
+        return true;
+    }
+
+    /**
+     * Compares a value in the document with one about to be written. Numbers are compared by value,
+     * since SnakeYAML reads back {@code Integer}s and {@code Double}s for {@code long} and {@code float}
+     * fields, and sections are compared with the maps they were written from.
+     */
+    private static boolean sameValue(Object current, Object value) {
+        if (current instanceof ConfigurationSection section) current = section.getMapValues(true);
+        if (current instanceof Number a && value instanceof Number b) return sameNumber(a, b);
+        if (current instanceof Map<?, ?> a && value instanceof Map<?, ?> b) {
+            if (a.size() != b.size()) return false;
+            for (var e : b.entrySet()) {
+                String key = String.valueOf(e.getKey());
+                if (!a.containsKey(key) || !sameValue(a.get(key), e.getValue())) return false;
             }
-            return;
+            return true;
         }
-
-        for (var f : type.getDeclaredFields()) {
-            if (Modifier.isStatic(f.getModifiers())) continue;
-            try {
-                f.setAccessible(true);
-                Object val = f.get(obj);
-                String path = concat(basePath, f.getName());
-                commentIfPresent(yaml, path, f);
-                writeObject(yaml, path, val, f.getType());
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
+        if (current instanceof List<?> a && value instanceof List<?> b) {
+            if (a.size() != b.size()) return false;
+            Iterator<?> ia = a.iterator();
+            for (Object o : b) {
+                if (!sameValue(ia.next(), o)) return false;
             }
+            return true;
         }
+        return Objects.equals(current, value);
+    }
+
+    private static boolean sameNumber(Number a, Number b) {
+        if (isIntegral(a) && isIntegral(b)) return a.longValue() == b.longValue();
+        // a float written as 0.1 reads back as the double 0.1, which is not the float widened
+        if (a instanceof Float || b instanceof Float) return Float.compare(a.floatValue(), b.floatValue()) == 0;
+        return Double.compare(a.doubleValue(), b.doubleValue()) == 0;
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
+    }
+
+    private boolean header(YamlFile yaml, String[] lines) {
+        String header = String.join("\n", lines);
+        if (header.equals(yaml.getHeader())) return false;
+        yaml.setHeader(header);
+        return true;
     }
 
     private boolean isLeafType(Class<?> type) {
@@ -112,24 +216,24 @@ public final class SimpleYamlEngine implements ConfigHandle.Engine {
                 || String.class.equals(type)
                 || Number.class.isAssignableFrom(type)
                 || Boolean.class.equals(type)
-                || Character.class.equals(type)
-                || type.isEnum();
+                || Character.class.equals(type);
     }
 
-    private Object getValue(java.lang.reflect.RecordComponent rc, Object obj) {
-        try {
-            return rc.getAccessor().invoke(obj);
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private void commentIfPresent(YamlFile yaml, String path, AnnotatedElement el) {
-        Comment c = el.getAnnotation(Comment.class);
-        if (c != null) yaml.setComment(path, String.join("\n", c.value()));
+    private boolean commentIfPresent(YamlFile yaml, String path, String[] comment) {
+        if (comment == null) return false;
+        String text = String.join("\n", comment);
+        if (text.equals(yaml.getComment(path))) return false;
+        yaml.setComment(path, text);
+        return true;
     }
 
     private String concat(String base, String child) {
         return base.isEmpty() ? child : base + "." + child;
     }
+
+    /**
+     * A parsed document and the stamp of the file it was last read from or written to.
+     */
+    private record Retained(SoftReference<YamlFile> yaml, FileStamp stamp) {
+    }
 }
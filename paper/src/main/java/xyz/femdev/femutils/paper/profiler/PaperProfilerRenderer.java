@@ -2,6 +2,7 @@ package xyz.femdev.femutils.paper.profiler;
 
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.command.CommandSender;
+import xyz.femdev.femutils.java.profiler.Percentiles;
 import xyz.femdev.femutils.java.profiler.ProfilerReport;
 import xyz.femdev.femutils.java.profiler.ProfilerReportSection;
 
@@ -33,6 +34,11 @@ public class PaperProfilerRenderer {
     public void render(ProfilerReport report) {
         sender.sendMessage(MM.deserialize(prefix + "<gray>Profiler Report @ " + TIME_FMT.format(Instant.ofEpochMilli(report.timestamp())) + "</gray>"));
         renderSections(report.roots(), 0);
+        for (var group : report.threads()) {
+            sender.sendMessage(MM.deserialize(prefix + "<aqua>" + MM.escapeTags(group.name()) + "</aqua> <gray>"
+                    + MM.escapeTags(String.join(", ", group.threads())) + "</gray>"));
+            renderSections(group.roots(), 1);
+        }
     }
 
     private void renderSections(java.util.List<ProfilerReportSection> sections, int indent) {
@@ -48,6 +54,12 @@ public class PaperProfilerRenderer {
         String msg = prefix
                 + "<yellow>" + indentSpaces + sec.name() + ": "
                 + String.format("%.3f", ms) + " ms</yellow>";
+        if (sec.count() > 1) {
+            Percentiles p = sec.percentiles();
+            msg += String.format(" <gray>(%d calls, avg %.3f ms, p50/p90/p99/p999 %.3f/%.3f/%.3f/%.3f ms, max %.3f ms)</gray>",
+                    sec.count(), sec.averageNanos() / 1_000_000.0, p.p50() / 1_000_000.0, p.p90() / 1_000_000.0,
+                    p.p99() / 1_000_000.0, p.p999() / 1_000_000.0, sec.maxNanos() / 1_000_000.0);
+        }
         sender.sendMessage(MM.deserialize(msg));
     }
 }
@@ -0,0 +1,197 @@
+package xyz.femdev.femutils.paper.profiler;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.destroystokyo.paper.event.server.ServerTickStartEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import xyz.femdev.femutils.java.profiler.FrameBuffer;
+import xyz.femdev.femutils.java.profiler.Profiler;
+import xyz.femdev.femutils.java.profiler.ProfilerExporters;
+import xyz.femdev.femutils.java.profiler.ProfilerReport;
+import xyz.femdev.femutils.java.profiler.ProfilerReportSection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Slices the sections recorded on the server thread into server ticks and keeps the last few.
+ * <p>
+ * Every section started on the server thread between {@link ServerTickStartEvent} and
+ * {@link ServerTickEndEvent} belongs to that tick; sections outside a tick are dropped. The
+ * last {@code history} ticks are kept in reused buffers, so a running profiler allocates nothing
+ * once warmed up. A tick slower than the budget is turned into a report right away, kept as
+ * {@link #lastSpike()} and queued to be written as JSON to the spike directory off the server
+ * thread. Spikes cluster, so up to {@code history} of them can wait for the writer; a spike that
+ * finds the queue full is logged and not written.
+ * </p>
+ * <p>
+ * The server thread is always recorded while the profiler runs, whatever {@link Profiler#mode()} is.
+ * Start and stop it on the server thread.
+ * </p>
+ */
+public final class TickProfiler implements Listener {
+
+    private final Plugin plugin;
+    private final Path spikeDirectory;
+    private final FrameBuffer[] ticks;
+    private final int[] tickNumbers;
+    private final long[] timestamps;
+    private final long[] durations;
+    private final Queue<Spike> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean saving = new AtomicBoolean();
+    private volatile long budgetNanos;
+    private volatile ProfilerReport lastSpike;
+
+    private int next;
+    private int filled;
+    private boolean inTick;
+    private int tickNumber;
+    private long tickTimestamp;
+    private long tickStart;
+
+    /**
+     * @param plugin         the plugin owning the listener
+     * @param history        number of recent ticks to keep
+     * @param budget         ticks slower than this are saved, e.g. 50 ms
+     * @param spikeDirectory directory the JSON reports of slow ticks are written to
+     */
+    public TickProfiler(Plugin plugin, int history, Duration budget, Path spikeDirectory) {
+        this.plugin = Objects.requireNonNull(plugin, "plugin");
+        this.spikeDirectory = Objects.requireNonNull(spikeDirectory, "spikeDirectory");
+        if (history < 1) throw new IllegalArgumentException("history must be at least 1");
+        this.ticks = new FrameBuffer[history];
+        for (int i = 0; i < history; i++) ticks[i] = new FrameBuffer();
+        this.tickNumbers = new int[history];
+        this.timestamps = new long[history];
+        this.durations = new long[history];
+        setBudget(budget);
+    }
+
+    /**
+     * Starts listening for ticks and recording the server thread.
+     */
+    public void start() {
+        Profiler.setThreadMode(Profiler.Mode.RECORD);
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Stops listening. Recent ticks and the last spike stay available.
+     */
+    public void stop() {
+        HandlerList.unregisterAll(this);
+        Profiler.setThreadMode(null);
+        inTick = false;
+    }
+
+    /**
+     * Changes the budget above which a tick counts as a spike.
+     */
+    public void setBudget(Duration budget) {
+        if (budget.isNegative()) throw new IllegalArgumentException("budget must not be negative");
+        this.budgetNanos = budget.toNanos();
+    }
+
+    /**
+     * @return the last tick slower than the budget, or {@code null}
+     */
+    public ProfilerReport lastSpike() {
+        return lastSpike;
+    }
+
+    /**
+     * Builds reports of the kept ticks. Call on the server thread.
+     *
+     * @return one report per tick, oldest first
+     */
+    public List<ProfilerReport> recentTicks() {
+        List<ProfilerReport> reports = new ArrayList<>(filled);
+        for (int i = 0; i < filled; i++) {
+            reports.add(report((next - filled + i + ticks.length) % ticks.length));
+        }
+        return reports;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onTickStart(ServerTickStartEvent event) {
+        // drop whatever ran between ticks; a section left open across ticks is kept for the next one
+        inTick = Profiler.drainCurrentThread(null);
+        tickNumber = event.getTickNumber();
+        tickTimestamp = System.currentTimeMillis();
+        tickStart = System.nanoTime();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        long elapsed = System.nanoTime() - tickStart;
+        if (!inTick) return;
+        inTick = false;
+
+        int slot = next;
+        FrameBuffer frames = ticks[slot];
+        if (!Profiler.drainCurrentThread(frames)) frames.clear();
+        tickNumbers[slot] = tickNumber;
+        timestamps[slot] = tickTimestamp;
+        durations[slot] = elapsed;
+        next = (slot + 1) % ticks.length;
+        if (filled < ticks.length) filled++;
+
+        if (elapsed > budgetNanos) spike(slot);
+    }
+
+    private void spike(int slot) {
+        ProfilerReport report = report(slot);
+        lastSpike = report;
+        Path file = spikeDirectory.resolve("tick-" + tickNumbers[slot] + "-" + timestamps[slot] + ".json");
+        if (pendingCount.incrementAndGet() > ticks.length) {
+            pendingCount.decrementAndGet();
+            plugin.getLogger().warning("Tick spike " + file.getFileName() + " ("
+                    + durations[slot] / 1_000_000 + " ms) not saved, " + ticks.length + " spikes are still being written");
+            return;
+        }
+        pending.add(new Spike(report, file));
+        if (saving.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, this::writePending);
+        }
+    }
+
+    private void writePending() {
+        do {
+            Spike spike;
+            while ((spike = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                try {
+                    Files.createDirectories(spikeDirectory);
+                    ProfilerExporters.toJsonFile(spike.report(), spike.file());
+                } catch (IOException | RuntimeException e) {
+                    // keep going, or the writer flag would never be cleared
+                    plugin.getLogger().log(Level.WARNING, "Failed to save tick spike " + spike.file(), e);
+                }
+            }
+            saving.set(false);
+            // a spike queued after the last poll but before the flag was cleared is ours to write
+        } while (!pending.isEmpty() && saving.compareAndSet(false, true));
+    }
+
+    private ProfilerReport report(int slot) {
+        var tick = new ProfilerReportSection("tick " + tickNumbers[slot], durations[slot], ticks[slot].sections());
+        return new ProfilerReport(timestamps[slot], List.of(tick));
+    }
+
+    private record Spike(ProfilerReport report, Path file) {
+    }
+}
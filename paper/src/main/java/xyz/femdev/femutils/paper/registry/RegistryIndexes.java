@@ -0,0 +1,136 @@
+package xyz.femdev.femutils.paper.registry;
+
+import io.papermc.paper.event.server.ServerResourcesReloadedEvent;
+import org.bukkit.Keyed;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.Sound;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.server.ServerLoadEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.potion.PotionEffectType;
+import xyz.femdev.femutils.java.core.NameIndex;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, prebuilt name lookups for Bukkit registries, used by config serializers and command parsers.
+ * <p>
+ * Each value is indexed by its full key ({@code minecraft:diamond_sword}), its bare key for the
+ * {@code minecraft} namespace ({@code diamond_sword}) and, for enums, its constant name
+ * ({@code DIAMOND_SWORD}). Matching is case-insensitive and {@code '-'} or {@code ' '} match
+ * {@code '_'}, see {@link NameIndex}. Indexes are built on first use, after the registries are loaded.
+ * </p>
+ * <p>
+ * Enchantments can come from data packs, so their index is a snapshot that {@link #refresh()}
+ * drops; {@link #refreshOnReload} does that once the server has loaded and whenever its data
+ * packs are reloaded. {@link xyz.femdev.femutils.paper.config.PaperConfigs} and
+ * {@link xyz.femdev.femutils.paper.command.FemCommandManager} register it for their plugin.
+ * </p>
+ */
+public final class RegistryIndexes {
+
+    private static final Set<Plugin> LISTENING = ConcurrentHashMap.newKeySet();
+    private static volatile NameIndex<Enchantment> enchantments;
+
+    private RegistryIndexes() {
+    }
+
+    /**
+     * @return non-legacy materials
+     */
+    public static NameIndex<Material> materials() {
+        return Materials.INDEX;
+    }
+
+    /**
+     * @return sounds, e.g. {@code entity.experience_orb.pickup}
+     */
+    public static NameIndex<Sound> sounds() {
+        return Sounds.INDEX;
+    }
+
+    /**
+     * @return enchantments, including those added by data packs as of the last {@link #refresh()}
+     */
+    public static NameIndex<Enchantment> enchantments() {
+        NameIndex<Enchantment> index = enchantments;
+        if (index == null) enchantments = index = index(Registry.ENCHANTMENT);
+        return index;
+    }
+
+    /**
+     * Drops the indexes of registries that data packs can change, so they are rebuilt on next use.
+     */
+    public static void refresh() {
+        enchantments = null;
+    }
+
+    /**
+     * Calls {@link #refresh()} when the server has finished loading and after every data pack
+     * reload. Registering the same plugin again does nothing.
+     */
+    public static void refreshOnReload(Plugin plugin) {
+        if (!LISTENING.add(plugin)) return;
+        plugin.getServer().getPluginManager().registerEvents(new Listener() {
+            @EventHandler
+            public void onLoad(ServerLoadEvent event) {
+                refresh();
+            }
+
+            @EventHandler
+            public void onReload(ServerResourcesReloadedEvent event) {
+                refresh();
+            }
+        }, plugin);
+    }
+
+    /**
+     * @return potion effect types
+     */
+    public static NameIndex<PotionEffectType> potionEffects() {
+        return PotionEffects.INDEX;
+    }
+
+    /**
+     * @return entity types
+     */
+    public static NameIndex<EntityType> entityTypes() {
+        return EntityTypes.INDEX;
+    }
+
+    /**
+     * Builds an index over any registry or collection of keyed values.
+     */
+    public static <T extends Keyed> NameIndex<T> index(Iterable<T> values) {
+        NameIndex.Builder<T> builder = NameIndex.builder();
+        for (T value : values) {
+            NamespacedKey key = value.getKey();
+            builder.add(key.asString(), value);
+            if (NamespacedKey.MINECRAFT.equals(key.getNamespace())) builder.add(key.getKey(), value);
+            if (value instanceof Enum<?> e) builder.add(e.name(), value);
+        }
+        return builder.build();
+    }
+
+    private static final class Materials {
+        static final NameIndex<Material> INDEX = index(Registry.MATERIAL);
+    }
+
+    private static final class Sounds {
+        static final NameIndex<Sound> INDEX = index(Registry.SOUNDS);
+    }
+
+    private static final class PotionEffects {
+        static final NameIndex<PotionEffectType> INDEX = index(Registry.EFFECT);
+    }
+
+    private static final class EntityTypes {
+        static final NameIndex<EntityType> INDEX = index(Registry.ENTITY_TYPE);
+    }
+}
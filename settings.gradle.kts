@@ -10,6 +10,7 @@ plugins {
 
 rootProject.name = "FemUtils"
 include("java")
+include("config-processor")
 include("paper")
 include("compatibility-layer:core")
 include("compatibility-layer:version-1_21_1")